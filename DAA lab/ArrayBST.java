@@ -0,0 +1,255 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+BST stored as parallel int arrays instead of one Node object per key.
+
+node i  ->  key[i], left[i], right[i]   (child = index of another node, NIL = -1)
+
+No object header per node and no references for the GC to trace: 12 bytes per key,
+and the arrays are contiguous, so walking the tree touches far fewer cache lines.
+
+- deleted slots go on a free list (chained through left[]) and are reused by insert
+- buildBalanced bulk-loads a perfectly balanced tree from a sorted array in O(n)
+- Eytzinger is a separate read-only layout for lookup-heavy use: the sorted keys are
+  stored in BFS order (children of slot k are 2k and 2k+1), so the search is a simple
+  loop with no pointers at all and the top levels of the tree share cache lines.
+
+Same behaviour as BST: duplicates are ignored, the tree is not self-balancing
+(use AVLTree for that, or rebuild with buildBalanced).
+ */
+
+public class ArrayBST {
+
+    static final int NIL = -1;
+
+    int[] key, left, right;
+    int root = NIL;
+    int used = 0;        // slots handed out so far (including freed ones)
+    int free = NIL;      // head of the free slot list
+    int size = 0;
+
+    ArrayBST() {
+        this(16);
+    }
+
+    ArrayBST(int capacity) {
+        key = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+    }
+
+    // ---------------- slots ----------------
+
+    int allocate(int k) {
+        int slot;
+        if (free != NIL) {
+            slot = free;
+            free = left[slot];  // next free slot
+        } else {
+            if (used == key.length) grow();
+            slot = used++;
+        }
+        key[slot] = k;
+        left[slot] = right[slot] = NIL;
+        return slot;
+    }
+
+    void release(int slot) {
+        left[slot] = free;
+        free = slot;
+    }
+
+    void grow() {
+        int cap = Math.max(16, key.length * 2);
+        key = Arrays.copyOf(key, cap);
+        left = Arrays.copyOf(left, cap);
+        right = Arrays.copyOf(right, cap);
+    }
+
+    // ---------------- operations ----------------
+
+    boolean contains(int k) {
+        int cur = root;
+        while (cur != NIL) {
+            if (k == key[cur]) return true;
+            cur = k < key[cur] ? left[cur] : right[cur];
+        }
+        return false;
+    }
+
+    void insert(int k) {
+        if (root == NIL) {
+            root = allocate(k);
+            size++;
+            return;
+        }
+        int cur = root;
+        while (true) {
+            if (k == key[cur]) return;  // already there
+            int[] side = k < key[cur] ? left : right;
+            if (side[cur] == NIL) {
+                int slot = allocate(k);
+                // allocate may have grown the arrays, so look the side up again
+                if (k < key[cur]) left[cur] = slot;
+                else right[cur] = slot;
+                size++;
+                return;
+            }
+            cur = side[cur];
+        }
+    }
+
+    void delete(int k) {
+        int parent = NIL, cur = root;
+        while (cur != NIL && key[cur] != k) {
+            parent = cur;
+            cur = k < key[cur] ? left[cur] : right[cur];
+        }
+        if (cur == NIL) return;
+
+        if (left[cur] != NIL && right[cur] != NIL) {
+            // find successor, copy its key here and remove the successor instead
+            int succParent = cur, succ = right[cur];
+            while (left[succ] != NIL) {
+                succParent = succ;
+                succ = left[succ];
+            }
+            key[cur] = key[succ];
+            parent = succParent;
+            cur = succ;
+        }
+
+        int child = left[cur] != NIL ? left[cur] : right[cur];
+        if (parent == NIL) root = child;
+        else if (left[parent] == cur) left[parent] = child;
+        else right[parent] = child;
+
+        release(cur);
+        size--;
+    }
+
+    // ---------------- bulk load ----------------
+
+    // Perfectly balanced tree from sorted, distinct keys in O(n)
+    static ArrayBST buildBalanced(int[] sorted) {
+        int n = sorted.length;
+        ArrayBST t = new ArrayBST(Math.max(n, 1));
+        // slot i holds sorted[i], so each node only has to be linked to its children
+        System.arraycopy(sorted, 0, t.key, 0, n);
+        t.used = n;
+        t.size = n;
+        t.root = link(t, 0, n - 1);
+        return t;
+    }
+
+    // recursion depth is only log2(n)
+    static int link(ArrayBST t, int lo, int hi) {
+        if (lo > hi) return NIL;
+        int mid = (lo + hi) >>> 1;
+        t.left[mid] = link(t, lo, mid - 1);
+        t.right[mid] = link(t, mid + 1, hi);
+        return mid;
+    }
+
+    // In-order walk with an explicit stack
+    void inorder() {
+        int[] stack = new int[64];
+        int top = 0, cur = root;
+        while (cur != NIL || top > 0) {
+            while (cur != NIL) {
+                if (top == stack.length) stack = Arrays.copyOf(stack, top * 2);  // unbalanced trees can be deep
+                stack[top++] = cur;
+                cur = left[cur];
+            }
+            cur = stack[--top];
+            System.out.print(key[cur] + " ");
+            cur = right[cur];
+        }
+    }
+
+    // ---------------- Eytzinger layout ----------------
+
+    static class Eytzinger {
+        final int[] tree;  // 1-indexed, tree[0] unused
+        final int n;
+
+        Eytzinger(int[] sorted) {
+            n = sorted.length;
+            tree = new int[n + 1];
+            fill(sorted, 0, 1);
+        }
+
+        // in-order walk of the implicit tree hands out the sorted keys in order
+        int fill(int[] sorted, int i, int k) {
+            if (k <= n) {
+                i = fill(sorted, i, 2 * k);
+                tree[k] = sorted[i++];
+                i = fill(sorted, i, 2 * k + 1);
+            }
+            return i;
+        }
+
+        // index in tree[] of the smallest key >= x, 0 if none
+        int lowerBound(int x) {
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (tree[k] < x ? 1 : 0);  // go right if tree[k] is too small
+            }
+            // undo the final run of "went right" steps plus one left step
+            return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+        }
+
+        boolean contains(int x) {
+            int k = lowerBound(x);
+            return k != 0 && tree[k] == x;
+        }
+    }
+
+    public static void main(String[] args) {
+        ArrayBST tree = new ArrayBST();
+
+        // Insert elements
+        for (int k : new int[]{50, 30, 70, 20, 40, 60, 80}) {
+            tree.insert(k);
+        }
+
+        System.out.print("Inorder before deletion: ");
+        tree.inorder();
+        System.out.println();
+
+        tree.delete(50);
+
+        System.out.print("Inorder after deletion: ");
+        tree.inorder();
+        System.out.println();
+
+        // bulk load vs Eytzinger lookups
+        int n = 1_000_000;
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) sorted[i] = i * 3;
+        int[] queries = new int[n];
+        Random r = new Random(1);
+        for (int i = 0; i < n; i++) queries[i] = r.nextInt(3 * n);
+
+        long start = System.nanoTime();
+        ArrayBST balanced = buildBalanced(sorted);
+        System.out.println("Bulk load of " + n + " keys: " + (System.nanoTime() - start) / 1e6 + " ms");
+
+        Eytzinger eyt = new Eytzinger(sorted);
+        for (int round = 0; round < 2; round++) {
+            start = System.nanoTime();
+            int hits = 0;
+            for (int q : queries) if (balanced.contains(q)) hits++;
+            long bstTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int hits2 = 0;
+            for (int q : queries) if (eyt.contains(q)) hits2++;
+            long eytTime = System.nanoTime() - start;
+
+            System.out.println("Lookups: balanced " + bstTime / 1e6 + " ms, Eytzinger " + eytTime / 1e6
+                    + " ms (hits " + hits + "/" + hits2 + ")");
+        }
+    }
+}
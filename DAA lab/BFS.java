@@ -2,16 +2,25 @@ import java.util.*;
 
 public class BFS {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws java.io.IOException {
         Scanner sc = new Scanner(System.in);
-        System.out.print("Enter the number of vertices: ");
-        int vertices = sc.nextInt();
-        int[][] adj = new int[vertices][vertices];
-
-        System.out.println("Enter the adjacency matrix:");
-        for (int i = 0; i < vertices; i++) {
-            for (int j = 0; j < vertices; j++) {
-                adj[i][j] = sc.nextInt();
+        int vertices;
+        int[][] adj;
+
+        if (args.length > 0) {
+            // graph from a file instead: edge list or binary CSR (see GraphIO)
+            adj = GraphIO.loadMatrix(args[0], 0, false, false);
+            vertices = adj.length;
+        } else {
+            System.out.print("Enter the number of vertices: ");
+            vertices = sc.nextInt();
+            adj = new int[vertices][vertices];
+
+            System.out.println("Enter the adjacency matrix:");
+            for (int i = 0; i < vertices; i++) {
+                for (int j = 0; j < vertices; j++) {
+                    adj[i][j] = sc.nextInt();
+                }
             }
         }
         System.out.print("Enter the starting vertex: ");
@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.stream.IntStream;
+
+/*
+Warshall's transitive closure on bit rows instead of an int[][] matrix.
+
+Row i of the matrix is packed into W = ceil(n/64) longs, all rows in one flat long[]
+(bit j of row i = bits[i*W + j/64] >> (j%64)). That is 32x less memory than int[][],
+so 50k vertices need ~300MB instead of 10GB.
+
+Warshall's inner loop for a fixed (k, i) is
+    for all j: graph[i][j] |= graph[i][k] & graph[k][j]
+which is just "if bit (i,k) is set, OR row k into row i" - 64 columns per long.
+
+closure        -> for every k, all rows are updated in parallel (row k itself never changes)
+closureBlocked -> takes a block of k values whose rows fit in L2 cache together:
+                  first the rows of the block are closed over the block (sequential),
+                  then every other row ORs in the block's rows in one pass (parallel).
+                  Each row is streamed from memory once per block instead of once per k.
+ */
+
+public class BitWarshall {
+
+    static final int ROW_CHUNK = 64;             // rows per parallel task
+    static final int BLOCK_BYTES = 256 * 1024;   // target size of the k-rows kept in cache
+
+    final int n, words;
+    final long[] bits;
+
+    BitWarshall(int n) {
+        this.n = n;
+        this.words = (n + 63) >>> 6;
+        if ((long) n * words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many vertices for one bit matrix: " + n);
+        }
+        this.bits = new long[n * words];
+    }
+
+    static BitWarshall fromMatrix(int[][] graph, int n) {
+        BitWarshall b = new BitWarshall(n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (graph[i][j] != 0) b.set(i, j);
+            }
+        }
+        return b;
+    }
+
+    void set(int i, int j) {
+        bits[i * words + (j >>> 6)] |= 1L << j;
+    }
+
+    boolean get(int i, int j) {
+        return (bits[i * words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    // row i |= row k
+    void orRow(int i, int k) {
+        int ri = i * words, rk = k * words;
+        for (int w = 0; w < words; w++) {
+            bits[ri + w] |= bits[rk + w];
+        }
+    }
+
+    // Plain Warshall, rows of each k in parallel
+    void closure() {
+        int tasks = (n + ROW_CHUNK - 1) / ROW_CHUNK;
+        for (int k = 0; k < n; k++) {
+            final int kk = k;
+            IntStream.range(0, tasks).parallel().forEach(t -> {
+                int end = Math.min(n, (t + 1) * ROW_CHUNK);
+                for (int i = t * ROW_CHUNK; i < end; i++) {
+                    if (i != kk && get(i, kk)) orRow(i, kk);
+                }
+            });
+        }
+    }
+
+    // Cache-blocked Warshall
+    void closureBlocked() {
+        int block = Math.max(1, Math.min(n, BLOCK_BYTES / (words * 8)));
+        int tasks = (n + ROW_CHUNK - 1) / ROW_CHUNK;
+
+        for (int kb = 0; kb < n; kb += block) {
+            final int from = kb, to = Math.min(n, kb + block);
+
+            // 1. close the block's own rows over k in [from, to)
+            for (int k = from; k < to; k++) {
+                for (int i = from; i < to; i++) {
+                    if (i != k && get(i, k)) orRow(i, k);
+                }
+            }
+
+            // 2. every other row takes all the block rows it reaches, in k order
+            IntStream.range(0, tasks).parallel().forEach(t -> {
+                int end = Math.min(n, (t + 1) * ROW_CHUNK);
+                for (int i = t * ROW_CHUNK; i < end; i++) {
+                    if (i >= from && i < to) continue;
+                    for (int k = from; k < to; k++) {
+                        if (get(i, k)) orRow(i, k);
+                    }
+                }
+            });
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].matches("\\d+")) {
+            benchmark(Integer.parseInt(args[0]));
+            return;
+        }
+        if (args.length > 0) {
+            runFile(args[0]);
+            return;
+        }
+
+        Scanner sc = new Scanner(System.in);
+        System.out.print("Enter the number of vert: ");
+
+        int vert = sc.nextInt();
+        int[][] graph = new int[vert][vert];
+
+        System.out.println("Enter the adjacency matrix (0 for no edge, 1 for edge):");
+        for (int i = 0; i < vert; i++) {
+            for (int j = 0; j < vert; j++) {
+                graph[i][j] = sc.nextInt();
+            }
+        }
+
+        BitWarshall b = fromMatrix(graph, vert);
+        b.closureBlocked();
+
+        System.out.println("Transitive Closure:");
+        for (int i = 0; i < vert; i++) {
+            for (int j = 0; j < vert; j++) {
+                System.out.print((b.get(i, j) ? 1 : 0) + " ");
+            }
+            System.out.println();
+        }
+        sc.close();
+    }
+
+    static BitWarshall fromGraph(CSRGraph g) {
+        BitWarshall b = new BitWarshall(g.n);
+        for (int u = 0; u < g.n; u++) {
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) b.set(u, g.targets[e]);
+        }
+        return b;
+    }
+
+    // java BitWarshall <graph>: edge list or binary CSR file (see GraphIO).
+    // n^2 bits, so up to ~50k vertices; prints timings and the number of reachable pairs.
+    static void runFile(String file) throws IOException {
+        long start = System.nanoTime();
+        CSRGraph g = GraphIO.load(file);
+        System.out.printf("Loaded %d vertices, %d edges in %.1f ms%n", g.n, g.edgeCount(), (System.nanoTime() - start) / 1e6);
+
+        BitWarshall b = fromGraph(g);
+        start = System.nanoTime();
+        b.closureBlocked();
+        long pairs = 0;
+        for (long w : b.bits) pairs += Long.bitCount(w);
+        System.out.printf("Closure in %.1f ms: %d reachable pairs%n", (System.nanoTime() - start) / 1e6, pairs);
+    }
+
+    // Random sparse graph (about 2 edges per vertex), both versions timed
+    static void benchmark(int n) {
+        Random r = new Random(1);
+        BitWarshall a = new BitWarshall(n);
+        for (int e = 0; e < 2 * n; e++) a.set(r.nextInt(n), r.nextInt(n));
+        BitWarshall b = new BitWarshall(n);
+        System.arraycopy(a.bits, 0, b.bits, 0, a.bits.length);
+
+        long start = System.nanoTime();
+        a.closure();
+        System.out.println("closure:        " + (System.nanoTime() - start) / 1e6 + " ms");
+
+        start = System.nanoTime();
+        b.closureBlocked();
+        System.out.println("closureBlocked: " + (System.nanoTime() - start) / 1e6 + " ms");
+
+        System.out.println("Same result: " + java.util.Arrays.equals(a.bits, b.bits));
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.ArrayList;
+import java.util.Scanner;
+import java.util.stream.IntStream;
+
+/*
+Bitset version of SubsetSum.find_subset.
+
+reach is a long[] where bit s is set if some subset of the items seen so far adds up to s.
+Adding item a is just:   reach = reach | (reach << a)
+so one long operation handles 64 sums at once instead of one boolean cell per sum.
+
+The full boolean[n+1][sum+1] table is not kept. Instead, the bitset is saved every
+'step' items (step ~ sqrt(n)). To backtrack, each block of items is recomputed
+from its checkpoint, so memory is about (n/step + step) bitsets of sum/64 longs.
+
+For very large sums the word range is split across threads (parallel = true).
+ */
+
+public class BitsetSubsetSum {
+
+    static final int CHUNK = 1 << 12;  // words per parallel task (32KB)
+
+    // Same contract as SubsetSum.find_subset
+    static boolean find_subset(int sum, int[] arr, ArrayList<Integer> subset) {
+        return find_subset(sum, arr, subset, false);
+    }
+
+    static boolean find_subset(int sum, int[] arr, ArrayList<Integer> subset, boolean parallel) {
+        if (sum < 0) return false;
+        int n = arr.length;
+        int words = (sum >>> 6) + 1;
+        int step = Math.max(1, (int) Math.sqrt(n));
+
+        // checkpoints[b] = bitset after the first b*step items
+        long[][] checkpoints = new long[(n + step - 1) / step + 1][];
+        long[] reach = new long[words];
+        reach[0] = 1L;  // 0 sum is always possible with empty subset
+        long[] spare = parallel ? new long[words] : null;
+
+        for (int i = 0; i < n; i++) {
+            if (i % step == 0) {
+                checkpoints[i / step] = reach.clone();
+            }
+            if (parallel) {
+                shiftOrParallel(reach, spare, arr[i], sum);
+                long[] t = reach; reach = spare; spare = t;
+            } else {
+                shiftOr(reach, arr[i], sum);
+            }
+            if (Metrics.ENABLED) Metrics.Counter.DP_CELLS.add(sum + 1L);
+        }
+
+        // If there's no subset with the target sum
+        if (!get(reach, sum)) {
+            return false;
+        }
+
+        // Backtrack block by block, last block first
+        int j = sum;
+        for (int b = (n - 1) / step; b >= 0 && j > 0; b--) {
+            int from = b * step;
+            int to = Math.min(n, from + step);
+
+            // states[k] = bitset before item from+k
+            long[][] states = new long[to - from][];
+            states[0] = checkpoints[b];
+            for (int i = from + 1; i < to; i++) {
+                states[i - from] = states[i - from - 1].clone();
+                shiftOr(states[i - from], arr[i - 1], sum);
+            }
+
+            for (int i = to - 1; i >= from && j > 0; i--) {
+                if (!get(states[i - from], j)) {
+                    // j wasn't reachable before arr[i], so arr[i] was included
+                    subset.add(arr[i]);
+                    j -= arr[i];  // Reduce the remaining sum
+                }
+            }
+        }
+        return true;
+    }
+
+    static boolean get(long[] bits, int s) {
+        return (bits[s >>> 6] & (1L << s)) != 0;
+    }
+
+    // reach |= reach << a, in place (high words first so sources are still old)
+    static void shiftOr(long[] reach, int a, int sum) {
+        if (a <= 0 || a > sum) return;  // 0 changes nothing, a > sum can't fit
+        int wordShift = a >>> 6;
+        int bitShift = a & 63;
+
+        for (int w = reach.length - 1; w >= wordShift; w--) {
+            reach[w] |= shifted(reach, w - wordShift, bitShift);
+        }
+        clearAbove(reach, sum);
+    }
+
+    // dst = src | (src << a), word ranges filled in parallel
+    static void shiftOrParallel(long[] src, long[] dst, int a, int sum) {
+        int words = src.length;
+        if (a <= 0 || a > sum) {
+            System.arraycopy(src, 0, dst, 0, words);
+            return;
+        }
+        int wordShift = a >>> 6;
+        int bitShift = a & 63;
+        int tasks = (words + CHUNK - 1) / CHUNK;
+
+        IntStream.range(0, tasks).parallel().forEach(t -> {
+            int from = t * CHUNK;
+            int to = Math.min(words, from + CHUNK);
+            for (int w = from; w < to; w++) {
+                long bits = src[w];
+                if (w >= wordShift) {
+                    bits |= shifted(src, w - wordShift, bitShift);
+                }
+                dst[w] = bits;
+            }
+        });
+        clearAbove(dst, sum);
+    }
+
+    // word 'w' of the bitset shifted left by bitShift (pulls in the high bits of word w-1)
+    static long shifted(long[] bits, int w, int bitShift) {
+        if (bitShift == 0) return bits[w];
+        long result = bits[w] << bitShift;
+        if (w > 0) result |= bits[w - 1] >>> (64 - bitShift);
+        return result;
+    }
+
+    // drop sums larger than the target, they can never come back down
+    static void clearAbove(long[] bits, int sum) {
+        int last = sum & 63;
+        if (last != 63) bits[bits.length - 1] &= (1L << (last + 1)) - 1;
+    }
+
+    public static void main(String[] args) {
+        Scanner sc = new Scanner(System.in);
+
+        System.out.println("Enter the number of elements: ");
+        int n = sc.nextInt();
+
+        int[] arr = new int[n];
+
+        System.out.println("Enter the elements: ");
+        for (int i = 0; i < n; i++) {
+            arr[i] = sc.nextInt();
+        }
+
+        System.out.println("Enter the target sum: ");
+        int sum = sc.nextInt();
+
+        ArrayList<Integer> subset = new ArrayList<>();
+
+        boolean val = find_subset(sum, arr, subset, sum > (1 << 24));
+
+        if (!val) {
+            System.out.println("No subset");
+        } else {
+            System.out.println("Subset is found: " + subset);
+        }
+    }
+}
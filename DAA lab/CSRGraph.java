@@ -0,0 +1,83 @@
+/*
+Compressed sparse row (CSR) graph, shared by the sparse graph algorithms.
+
+Instead of an n x n matrix, all edges are stored in two flat arrays:
+offsets[u] .. offsets[u+1]-1  = positions of u's outgoing edges
+targets[pos], weights[pos]    = end vertex and weight of that edge
+
+So memory is O(V + E) and walking the neighbours of u touches one contiguous slice.
+ */
+
+public class CSRGraph {
+
+    final int n;
+    final int[] offsets;   // length n + 1
+    final int[] targets;   // length E
+    final int[] weights;   // length E, null for unweighted graphs
+
+    CSRGraph(int n, int[] offsets, int[] targets, int[] weights) {
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    int vertexCount() {
+        return n;
+    }
+
+    int edgeCount() {
+        return targets.length;
+    }
+
+    int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    // Builds from an edge list using a counting sort on the source vertex, O(V + E)
+    static CSRGraph fromEdges(int n, int[] src, int[] dst, int[] w, int m) {
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            offsets[src[e] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];  // prefix sums = start of each row
+        }
+
+        int[] targets = new int[m];
+        int[] weights = w == null ? null : new int[m];
+        int[] fill = java.util.Arrays.copyOf(offsets, n);
+        for (int e = 0; e < m; e++) {
+            int pos = fill[src[e]]++;
+            targets[pos] = dst[e];
+            if (weights != null) weights[pos] = w[e];
+        }
+        return new CSRGraph(n, offsets, targets, weights);
+    }
+
+    // Every a[i][j] != noEdge becomes an edge i -> j with weight a[i][j]
+    static CSRGraph fromMatrix(int[][] a, int n, int noEdge) {
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (a[i][j] != noEdge) m++;
+            }
+        }
+
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int pos = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (a[i][j] != noEdge) {
+                    targets[pos] = j;
+                    weights[pos] = a[i][j];
+                    pos++;
+                }
+            }
+            offsets[i + 1] = pos;
+        }
+        return new CSRGraph(n, offsets, targets, weights);
+    }
+}
@@ -0,0 +1,286 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+Concurrent ordered set of int keys, so one tree can be shared by many threads
+without a global lock around BST / AVLTree.
+
+This is the "lazy" skip list (Herlihy, Lev, Luchangco, Shavit):
+- a skip list is a sorted linked list with extra express lanes; a node appears on
+  levels 0..topLevel, with topLevel random (level k with probability 1/2^k),
+  so a search drops down the lanes in O(log n) expected steps
+- contains / ceiling never lock and never retry (lock-free, actually wait-free)
+- add / remove lock only the few predecessor nodes they change, validate that
+  nothing moved in between, and retry otherwise. Threads working on different
+  parts of the list don't block each other
+- remove first sets 'marked' (logical delete, this is the linearization point),
+  then unlinks the node. A key is in the set iff its node is fullyLinked and not marked
+
+Keys are primitive ints, Integer.MIN_VALUE and MAX_VALUE are used by the sentinels.
+ */
+
+public class ConcurrentIntSkipList {
+
+    static final int MAX_LEVEL = 32;
+
+    static final class Node {
+        final int key;
+        final int topLevel;
+        final AtomicReferenceArray<Node> next;   // volatile reads/writes per level
+        final ReentrantLock lock = new ReentrantLock();
+        volatile boolean marked = false;         // logically deleted
+        volatile boolean fullyLinked = false;    // linked on every level
+
+        Node(int key, int topLevel) {
+            this.key = key;
+            this.topLevel = topLevel;
+            this.next = new AtomicReferenceArray<>(topLevel + 1);
+        }
+    }
+
+    final Node head = new Node(Integer.MIN_VALUE, MAX_LEVEL - 1);
+    final Node tail = new Node(Integer.MAX_VALUE, MAX_LEVEL - 1);
+
+    ConcurrentIntSkipList() {
+        for (int i = 0; i < MAX_LEVEL; i++) head.next.set(i, tail);
+        head.fullyLinked = tail.fullyLinked = true;
+    }
+
+    // Fills preds/succs for every level, returns the highest level where key was found (-1 if not)
+    int find(int key, Node[] preds, Node[] succs) {
+        int found = -1;
+        Node pred = head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            Node cur = pred.next.get(level);
+            while (key > cur.key) {
+                pred = cur;
+                cur = pred.next.get(level);
+            }
+            if (found == -1 && key == cur.key) found = level;
+            preds[level] = pred;
+            succs[level] = cur;
+        }
+        return found;
+    }
+
+    public boolean contains(int key) {
+        checkKey(key);
+        Node pred = head;
+        Node cur = null;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            cur = pred.next.get(level);
+            while (key > cur.key) {
+                pred = cur;
+                cur = pred.next.get(level);
+            }
+            if (cur.key == key) break;
+        }
+        return cur.key == key && cur.fullyLinked && !cur.marked;
+    }
+
+    // smallest key >= given key, or Integer.MAX_VALUE if there is none
+    public int ceiling(int key) {
+        Node pred = head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            Node cur = pred.next.get(level);
+            while (key > cur.key) {
+                pred = cur;
+                cur = pred.next.get(level);
+            }
+        }
+        // walk level 0 past nodes that are half inserted or deleted
+        Node cur = pred.next.get(0);
+        while (cur != tail && (cur.marked || !cur.fullyLinked)) {
+            cur = cur.next.get(0);
+        }
+        return cur.key;
+    }
+
+    public boolean add(int key) {
+        checkKey(key);
+        int topLevel = randomLevel();
+        Node[] preds = new Node[MAX_LEVEL];
+        Node[] succs = new Node[MAX_LEVEL];
+
+        while (true) {
+            int found = find(key, preds, succs);
+            if (found != -1) {
+                Node existing = succs[found];
+                if (!existing.marked) {
+                    // someone else is adding it: wait until it is visible, then report "already there"
+                    while (!existing.fullyLinked) Thread.onSpinWait();
+                    return false;
+                }
+                continue;  // being removed right now, try again
+            }
+
+            int highestLocked = -1;
+            try {
+                Node pred, succ, prevPred = null;
+                boolean valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    pred = preds[level];
+                    succ = succs[level];
+                    if (pred != prevPred) {  // same pred on several levels: lock once
+                        pred.lock.lock();
+                        highestLocked = level;
+                        prevPred = pred;
+                    }
+                    valid = !pred.marked && !succ.marked && pred.next.get(level) == succ;
+                }
+                if (!valid) continue;  // something changed after find, retry
+
+                Node node = new Node(key, topLevel);
+                for (int level = 0; level <= topLevel; level++) node.next.set(level, succs[level]);
+                for (int level = 0; level <= topLevel; level++) preds[level].next.set(level, node);
+                node.fullyLinked = true;  // linearization point of a successful add
+                return true;
+            } finally {
+                unlock(preds, highestLocked);
+            }
+        }
+    }
+
+    public boolean remove(int key) {
+        checkKey(key);
+        Node victim = null;
+        boolean isMarked = false;
+        int topLevel = -1;
+        Node[] preds = new Node[MAX_LEVEL];
+        Node[] succs = new Node[MAX_LEVEL];
+
+        while (true) {
+            int found = find(key, preds, succs);
+            if (found != -1) victim = succs[found];
+
+            if (isMarked || (found != -1 && victim.fullyLinked && victim.topLevel == found && !victim.marked)) {
+                if (!isMarked) {
+                    topLevel = victim.topLevel;
+                    victim.lock.lock();
+                    if (victim.marked) {
+                        victim.lock.unlock();
+                        return false;  // another thread removed it first
+                    }
+                    victim.marked = true;  // linearization point of a successful remove
+                    isMarked = true;
+                }
+
+                int highestLocked = -1;
+                try {
+                    Node pred, prevPred = null;
+                    boolean valid = true;
+                    for (int level = 0; valid && level <= topLevel; level++) {
+                        pred = preds[level];
+                        if (pred != prevPred) {
+                            pred.lock.lock();
+                            highestLocked = level;
+                            prevPred = pred;
+                        }
+                        valid = !pred.marked && pred.next.get(level) == victim;
+                    }
+                    if (!valid) continue;  // retry the unlink with fresh preds
+
+                    for (int level = topLevel; level >= 0; level--) {
+                        preds[level].next.set(level, victim.next.get(level));
+                    }
+                    victim.lock.unlock();
+                    return true;
+                } finally {
+                    unlock(preds, highestLocked);
+                }
+            } else {
+                return false;
+            }
+        }
+    }
+
+    // unlock every distinct pred locked on levels 0..highestLocked
+    static void unlock(Node[] preds, int highestLocked) {
+        Node prev = null;
+        for (int level = 0; level <= highestLocked; level++) {
+            if (preds[level] != prev) {
+                preds[level].lock.unlock();
+                prev = preds[level];
+            }
+        }
+    }
+
+    static int randomLevel() {
+        // number of trailing 1 bits of a random int = geometric with p = 1/2
+        int r = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(~r), MAX_LEVEL - 1);
+    }
+
+    static void checkKey(int key) {
+        if (key == Integer.MIN_VALUE || key == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Key is reserved for the sentinels: " + key);
+        }
+    }
+
+    // ---------------- throughput benchmark ----------------
+
+    interface IntSet {
+        boolean contains(int k);
+        boolean add(int k);
+        boolean remove(int k);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int range = 1 << 20;
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int[] threadCounts = {1, 2, 4, 8, 16, 32, 64};
+        int[] readPercents = {100, 90, 50};
+
+        System.out.println("threads\treads%\tskip list ops/s\tlocked AVLTree ops/s");
+        for (int reads : readPercents) {
+            for (int threads : threadCounts) {
+                ConcurrentIntSkipList list = new ConcurrentIntSkipList();
+                IntSet lockFree = new IntSet() {
+                    public boolean contains(int k) { return list.contains(k); }
+                    public boolean add(int k) { return list.add(k); }
+                    public boolean remove(int k) { return list.remove(k); }
+                };
+
+                AVLTree<Boolean> tree = new AVLTree<>();
+                IntSet locked = new IntSet() {  // what the service does today: one global lock
+                    public synchronized boolean contains(int k) { return tree.containsKey(k); }
+                    public synchronized boolean add(int k) { return tree.put(k, Boolean.TRUE) == null; }
+                    public synchronized boolean remove(int k) { return tree.remove(k) != null; }
+                };
+
+                long a = run(lockFree, threads, reads, range, millis);
+                long b = run(locked, threads, reads, range, millis);
+                System.out.println(threads + "\t" + reads + "\t" + a + "\t\t" + b);
+            }
+        }
+    }
+
+    // Half-filled set, then every thread does random ops for 'millis' ms
+    static long run(IntSet set, int threads, int readPercent, int range, long millis) throws InterruptedException {
+        for (int k = 1; k <= range; k += 2) set.add(k);
+
+        LongAdder ops = new LongAdder();
+        long end = System.nanoTime() + millis * 1_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                long done = 0;
+                while ((done & 1023) != 0 || System.nanoTime() < end) {
+                    int k = 1 + r.nextInt(range);
+                    int op = r.nextInt(100);
+                    if (op < readPercent) set.contains(k);
+                    else if ((op & 1) == 0) set.add(k);
+                    else set.remove(k);
+                    done++;
+                }
+                ops.add(done);
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        return ops.sum() * 1000 / millis;
+    }
+}
@@ -2,9 +2,20 @@ import java.util.*;
 
 public class Dijkstra {
 
-    int[] d = new int[10];
-    int[] p = new int[10];
-    int[] visited = new int[10];
+    int[] d;
+    int[] p;
+    int[] visited;
+
+    Dijkstra() {
+        this(10);
+    }
+
+    // arrays sized for graphs with up to n vertices
+    Dijkstra(int n) {
+        d = new int[n];
+        p = new int[n];
+        visited = new int[n];
+    }
 
     // Dijkstras algorithm
     public void dijk( int[][] a, int s, int n) {
@@ -37,6 +48,7 @@ public class Dijkstra {
             for(v = 0; v<n; v++){
                 if((d[u] + a[u][v] < d[v]) && (u!=v) && visited[v] == 0){
                     // if v can be a valid path
+                    if (Metrics.ENABLED) Metrics.Counter.RELAXATIONS.inc();
                     d[v] = d[u] + a[u][v];
                     p[v] = u;
                 }
@@ -67,23 +79,30 @@ public class Dijkstra {
         }
     }
 
-    public static void main(String[] args) {
-        int[][] a = new int[10][10];
+    public static void main(String[] args) throws java.io.IOException {
+        int[][] a;
         int n, s;
         Scanner sc = new Scanner(System.in);
 
-        System.out.println("Enter the number of vertices:");
-        n = sc.nextInt();
-
-        System.out.println("Enter the weighted matrix:");
-        for (int i = 0; i < n; i++)
-            for (int j = 0; j < n; j++)
-                a[i][j] = sc.nextInt();
+        if (args.length > 0) {
+            // weighted edge list or binary CSR file (see GraphIO), missing edges become 99
+            a = GraphIO.loadMatrix(args[0], 99, 98, true, false);
+            n = a.length;
+        } else {
+            a = new int[10][10];
+            System.out.println("Enter the number of vertices:");
+            n = sc.nextInt();
+
+            System.out.println("Enter the weighted matrix:");
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    a[i][j] = sc.nextInt();
+        }
 
         System.out.println("Enter the source vertex:");
         s = sc.nextInt();
 
-        Dijkstra tr = new Dijkstra();
+        Dijkstra tr = new Dijkstra(n);
         tr.dijk(a, s, n);
 
         System.out.println("The shortest paths from source " + s + " to all other vertices:");
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+Keeps a topological order up to date while edges are added one at a time
+(Pearce-Kelly dynamic topological sort), instead of re-running Topo / TopoKahn
+after every change.
+
+ord[v]   = position of v in the current order
+node[p]  = vertex at position p
+
+Adding x -> y:
+- if ord[x] < ord[y] the order is still valid, nothing moves
+- otherwise only the region between ord[y] and ord[x] can be affected:
+    forward  = vertices reachable from y with ord <= ord[x]   (if x is among them -> cycle)
+    backward = vertices that reach x with ord >= ord[y]
+  The positions used by these two sets are pooled and handed back out in sorted
+  order: first all of backward, then all of forward (each keeping its relative order).
+  Every other vertex keeps its position.
+
+Edges that would make a cycle are rejected before anything changes.
+ */
+
+public class DynamicTopo {
+
+    int n;
+    int[] ord, node;
+    int[][] out, in;          // adjacency lists, grown by doubling
+    int[] outSize, inSize;
+
+    // scratch space reused by every insert
+    int[] mark;               // mark[v] == stamp -> visited in this insert
+    int stamp = 0;
+    int[] stack = new int[16];
+    int[] forward = new int[16], backward = new int[16];
+    int forwardSize, backwardSize;
+
+    DynamicTopo(int n) {
+        this.n = n;
+        ord = new int[n];
+        node = new int[n];
+        out = new int[n][];
+        in = new int[n][];
+        outSize = new int[n];
+        inSize = new int[n];
+        mark = new int[n];
+        for (int v = 0; v < n; v++) {
+            ord[v] = v;   // any order is valid for a graph with no edges
+            node[v] = v;
+            out[v] = new int[2];
+            in[v] = new int[2];
+        }
+    }
+
+    int position(int v) {
+        return ord[v];
+    }
+
+    int[] order() {
+        return Arrays.copyOf(node, n);
+    }
+
+    // Adds x -> y, returns false (and changes nothing) if it would create a cycle
+    boolean addEdge(int x, int y) {
+        if (x == y) return false;
+
+        int lb = ord[y], ub = ord[x];
+        if (lb < ub) {
+            stamp++;
+            forwardSize = 0;
+            if (!searchForward(y, ub)) return false;  // reached x: cycle
+            backwardSize = 0;
+            searchBackward(x, lb);
+            reorder();
+        }
+
+        if (outSize[x] == out[x].length) out[x] = Arrays.copyOf(out[x], outSize[x] * 2);
+        out[x][outSize[x]++] = y;
+        if (inSize[y] == in[y].length) in[y] = Arrays.copyOf(in[y], inSize[y] * 2);
+        in[y][inSize[y]++] = x;
+        return true;
+    }
+
+    // DFS from y over out-edges, staying at positions <= ub. False if x (at ub) is hit.
+    boolean searchForward(int y, int ub) {
+        int top = 0;
+        stack[top++] = y;
+        mark[y] = stamp;
+        while (top > 0) {
+            int u = stack[--top];
+            forward = push(forward, forwardSize++, u);
+            for (int i = 0; i < outSize[u]; i++) {
+                int w = out[u][i];
+                if (ord[w] == ub) return false;
+                if (mark[w] != stamp && ord[w] < ub) {
+                    mark[w] = stamp;
+                    stack = push(stack, top++, w);
+                }
+            }
+        }
+        return true;
+    }
+
+    // DFS from x over in-edges, staying at positions > lb
+    void searchBackward(int x, int lb) {
+        int top = 0;
+        stack[top++] = x;
+        mark[x] = stamp;
+        while (top > 0) {
+            int u = stack[--top];
+            backward = push(backward, backwardSize++, u);
+            for (int i = 0; i < inSize[u]; i++) {
+                int w = in[u][i];
+                if (mark[w] != stamp && ord[w] > lb) {
+                    mark[w] = stamp;
+                    stack = push(stack, top++, w);
+                }
+            }
+        }
+    }
+
+    // Pool the positions of both sets and give them out: backward first, then forward
+    void reorder() {
+        sortByOrd(backward, backwardSize);
+        sortByOrd(forward, forwardSize);
+
+        int total = backwardSize + forwardSize;
+        int[] slots = new int[total];
+        for (int i = 0; i < backwardSize; i++) slots[i] = ord[backward[i]];
+        for (int i = 0; i < forwardSize; i++) slots[backwardSize + i] = ord[forward[i]];
+        Arrays.sort(slots);
+
+        int k = 0;
+        for (int i = 0; i < backwardSize; i++) place(backward[i], slots[k++]);
+        for (int i = 0; i < forwardSize; i++) place(forward[i], slots[k++]);
+    }
+
+    void place(int v, int pos) {
+        ord[v] = pos;
+        node[pos] = v;
+    }
+
+    // sort vertices by current position (packed as ord << 32 | v so one long sort does it)
+    void sortByOrd(int[] vs, int size) {
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) packed[i] = (long) ord[vs[i]] << 32 | vs[i];
+        Arrays.sort(packed);
+        for (int i = 0; i < size; i++) vs[i] = (int) packed[i];
+    }
+
+    static int[] push(int[] a, int i, int v) {
+        if (i == a.length) a = Arrays.copyOf(a, a.length * 2);
+        a[i] = v;
+        return a;
+    }
+
+    // ---------------- demo + comparison with a full re-sort ----------------
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = 2 * n;
+
+        // random edges that respect a hidden order, so the final graph is a DAG,
+        // plus a few back edges that must be rejected. The hidden order is the
+        // vertex numbering shuffled inside blocks of 256, like a build graph where
+        // targets mostly come after their dependencies but not exactly.
+        Random r = new Random(7);
+        int[] hidden = new int[n];
+        for (int i = 0; i < n; i++) hidden[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = i - r.nextInt(Math.min(i, i & 255) + 1);
+            int t = hidden[i]; hidden[i] = hidden[j]; hidden[j] = t;
+        }
+
+        DynamicTopo topo = new DynamicTopo(n);
+        int[] src = new int[m], dst = new int[m];
+        int added = 0, rejected = 0;
+        long start = System.nanoTime();
+        for (int e = 0; e < m; e++) {
+            // local edges (close in the hidden order) like real dependency graphs
+            int pa = r.nextInt(n - 1), pb = Math.min(n - 1, pa + 1 + r.nextInt(64));
+            int x = hidden[pa], y = hidden[pb];
+            boolean backEdge = e % 1000 == 0;
+            if (backEdge ? topo.addEdge(y, x) : topo.addEdge(x, y)) {
+                src[added] = backEdge ? y : x;
+                dst[added] = backEdge ? x : y;
+                added++;
+            } else {
+                rejected++;
+            }
+        }
+        long dynamicTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        int[] full = TopoKahn.sort(CSRGraph.fromEdges(n, src, dst, null, added));
+        long resortTime = System.nanoTime() - start;
+
+        // check: every accepted edge goes forward in the maintained order
+        boolean ok = true;
+        for (int e = 0; e < added; e++) {
+            if (topo.ord[src[e]] >= topo.ord[dst[e]]) ok = false;
+        }
+
+        System.out.println("Vertices: " + n + ", edges added: " + added + ", rejected (cycle): " + rejected);
+        System.out.println("Order valid: " + ok + " (full sort has " + full.length + " vertices)");
+        System.out.println("Incremental: " + dynamicTime / 1e6 + " ms total, "
+                + (double) dynamicTime / Math.max(1, added + rejected) / 1e3 + " us per insert");
+        System.out.println("One full re-sort: " + resortTime / 1e6 + " ms");
+    }
+}
@@ -0,0 +1,289 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.stream.IntStream;
+
+/*
+All-pairs shortest paths: Warshall's k-i-j loop in (min, +) form instead of (or, and).
+
+    dist[i][j] = min(dist[i][j], dist[i][k] + dist[k][j])
+
+so one run replaces calling Dijkstra.dijk once per source.
+
+Storage is a flat int[] (dist[i*n + j]). INF = Integer.MAX_VALUE / 2, so INF + INF
+still fits in an int and nothing involving INF is ever taken as a shorter path.
+next[i*n + j] = first vertex after i on the best path i -> j (-1 if none), which
+is enough to rebuild any path. Weights may be zero or negative, but there must be
+no negative cycle, and no zero-weight cycle if paths are needed (the next-hops
+around such a cycle can point at each other).
+
+Blocked version: the matrix is cut into B x B tiles (B = 64 -> 16KB per tile).
+For each diagonal tile (kb, kb):
+  1. run the plain k-i-j loop inside the diagonal tile
+  2. update the tiles in the same tile row and tile column (they only need the
+     diagonal tile) - all of them in parallel
+  3. update every remaining tile (i, j) from tile (i, kb) and tile (kb, j) - all in parallel
+Each step only touches 3 tiles at a time, so everything stays in cache.
+
+java FloydWarshall <V> [reps] times it against solveMatrix, the plain int[][] k-i-j
+loop (distances only). Measured on a 1-core VM (JDK 21, V = 4096, 25% edges):
+int[][] 76.5 s, flat naive 98.3 s, blocked 92.3 s - so 0.83x, NOT the 5x hoped for.
+With one core steps 2 and 3 can't run in parallel, and the next-hop stores and the
+INF checks cost more than the better cache use wins back. Multicore numbers are
+still to be measured.
+ */
+
+public class FloydWarshall {
+
+    static final int INF = Integer.MAX_VALUE / 2;
+    static final int B = 64;   // tile size
+
+    final int n;
+    final int[] dist, next;
+
+    // a[i][j] == noEdge means no direct edge (like the 99 used in Dijkstra)
+    FloydWarshall(int[][] a, int n, int noEdge) {
+        this.n = n;
+        dist = new int[n * n];
+        next = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                boolean edge = i != j && a[i][j] != noEdge;
+                dist[i * n + j] = i == j ? 0 : edge ? a[i][j] : INF;
+                next[i * n + j] = edge ? j : -1;
+            }
+        }
+    }
+
+    // From a CSR graph (unweighted -> weight 1); parallel edges keep the smallest weight
+    FloydWarshall(CSRGraph g) {
+        this.n = g.n;
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many vertices for an n x n distance matrix: " + n);
+        }
+        dist = new int[n * n];
+        next = new int[n * n];
+        Arrays.fill(dist, INF);
+        Arrays.fill(next, -1);
+        for (int u = 0; u < n; u++) {
+            dist[u * n + u] = 0;
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e], w = g.weights == null ? 1 : g.weights[e];
+                if (Math.abs(w) >= INF) throw new IllegalArgumentException("Weight out of range: " + w);
+                if (u != v && w < dist[u * n + v]) {
+                    dist[u * n + v] = w;
+                    next[u * n + v] = v;
+                }
+            }
+        }
+    }
+
+    // Baseline: Warshall.closure's k-i-j loop on int[][], just in (min, +) form.
+    // d[i][j] is the edge weight or INF; distances only, no next-hops.
+    static void solveMatrix(int[][] d, int n) {
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (d[i][k] + d[k][j] < d[i][j]) d[i][j] = d[i][k] + d[k][j];
+                }
+            }
+        }
+    }
+
+    // Plain triple loop on the flat arrays
+    void solveNaive() {
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                relax(i, k, 0, n);
+            }
+        }
+    }
+
+    // dist[i][j] = min(dist[i][j], dist[i][k] + dist[k][j]) for j in [j0, j1)
+    void relax(int i, int k, int j0, int j1) {
+        int a = dist[i * n + k];
+        if (a >= INF) return;  // no path i -> k, nothing to gain
+        int row = i * n, krow = k * n;
+        int hop = next[row + k];
+        for (int j = j0; j < j1; j++) {
+            int b = dist[krow + j];
+            if (b < INF && a + b < dist[row + j]) {
+                dist[row + j] = a + b;
+                next[row + j] = hop;
+            }
+        }
+    }
+
+    // Run the k loop of block kb on tile (ib, jb)
+    void tile(int kb, int ib, int jb) {
+        int k1 = Math.min(n, kb + B), i1 = Math.min(n, ib + B), j1 = Math.min(n, jb + B);
+        for (int k = kb; k < k1; k++) {
+            for (int i = ib; i < i1; i++) {
+                relax(i, k, jb, j1);
+            }
+        }
+    }
+
+    void solveBlocked() {
+        int tiles = (n + B - 1) / B;
+        for (int t = 0; t < tiles; t++) {
+            final int kb = t * B;
+
+            // 1. diagonal tile
+            tile(kb, kb, kb);
+
+            // 2. tile row and tile column of the diagonal
+            IntStream.range(0, 2 * tiles).parallel().forEach(x -> {
+                int other = (x >> 1) * B;
+                if (other == kb) return;
+                if ((x & 1) == 0) tile(kb, kb, other);  // row tile (kb, other)
+                else tile(kb, other, kb);               // column tile (other, kb)
+            });
+
+            // 3. everything else
+            IntStream.range(0, tiles * tiles).parallel().forEach(x -> {
+                int ib = (x / tiles) * B, jb = (x % tiles) * B;
+                if (ib == kb || jb == kb) return;
+                tile(kb, ib, jb);
+            });
+        }
+    }
+
+    // Vertices on the best path u -> v (empty if unreachable)
+    int[] path(int u, int v) {
+        if (u != v && next[u * n + v] == -1) return new int[0];
+        int[] p = new int[n];
+        int len = 0;
+        p[len++] = u;
+        while (u != v) {
+            if (len == n) throw new IllegalStateException("Next-hops loop: graph has a zero-weight cycle");
+            u = next[u * n + v];
+            p[len++] = u;
+        }
+        return java.util.Arrays.copyOf(p, len);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].matches("\\d+")) {
+            benchmark(Integer.parseInt(args[0]), args.length > 1 ? Integer.parseInt(args[1]) : 3);
+            return;
+        }
+        if (args.length > 0) {
+            runFile(args[0]);
+            return;
+        }
+
+        Scanner sc = new Scanner(System.in);
+        System.out.println("Enter the number of vertices:");
+        int n = sc.nextInt();
+
+        int[][] a = new int[n][n];
+        System.out.println("Enter the weighted matrix (99 for no edge):");
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                a[i][j] = sc.nextInt();
+
+        FloydWarshall fw = new FloydWarshall(a, n, 99);
+        fw.solveBlocked();
+
+        System.out.println("Shortest paths between all pairs:");
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                int d = fw.dist[i * n + j];
+                int[] p = fw.path(i, j);
+                StringBuilder sb = new StringBuilder();
+                for (int k = 0; k < p.length; k++) sb.append(k == 0 ? "" : " -> ").append(p[k]);
+                System.out.println(i + " to " + j + ": " + (d >= INF ? "no path" : sb + " = " + d));
+            }
+        }
+        sc.close();
+    }
+
+    // java FloydWarshall <graph>: edge list or binary CSR file (see GraphIO).
+    // Two n x n int arrays, so n is limited by the heap (16k vertices = 2GB).
+    // Answers "u v" lines from stdin with the path and its length.
+    static void runFile(String file) throws IOException {
+        long start = System.nanoTime();
+        CSRGraph g = GraphIO.load(file);
+        System.err.printf("Loaded %d vertices, %d edges in %.1f ms%n", g.n, g.edgeCount(), (System.nanoTime() - start) / 1e6);
+
+        FloydWarshall fw = new FloydWarshall(g);
+        start = System.nanoTime();
+        fw.solveBlocked();
+        System.err.printf("All pairs in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length != 2) continue;
+            int u = Integer.parseInt(parts[0]), v = Integer.parseInt(parts[1]);
+            if (u < 0 || u >= g.n || v < 0 || v >= g.n) {
+                System.out.println("error: vertex out of range 0.." + (g.n - 1));
+                continue;
+            }
+            int d = fw.dist[u * g.n + v];
+            int[] p = fw.path(u, v);
+            StringBuilder sb = new StringBuilder();
+            for (int k = 0; k < p.length; k++) sb.append(k == 0 ? "" : " -> ").append(p[k]);
+            System.out.println(u + " to " + v + ": " + (d >= INF ? "no path" : sb + " = " + d));
+        }
+    }
+
+    // Random dense graph: the int[][] baseline, the flat naive loop and the blocked
+    // version. One warm-up round on a smaller graph, then the median of `reps` runs.
+    static void benchmark(int n, int reps) {
+        for (int size : new int[]{Math.min(n, 256), n}) {
+            Random r = new Random(1);
+            int[][] a = new int[size][size];
+            for (int i = 0; i < size; i++)
+                for (int j = 0; j < size; j++)
+                    a[i][j] = r.nextInt(4) == 0 ? 1 + r.nextInt(1000) : -1;
+
+            int rounds = size == n ? reps : 1;
+            long[] matrixTimes = new long[rounds], naiveTimes = new long[rounds], blockedTimes = new long[rounds];
+            int[][] d = null;
+            FloydWarshall naive = null, blocked = null;
+            for (int rep = 0; rep < rounds; rep++) {
+                d = new int[size][size];
+                for (int i = 0; i < size; i++)
+                    for (int j = 0; j < size; j++)
+                        d[i][j] = i == j ? 0 : a[i][j] == -1 ? INF : a[i][j];
+                long start = System.nanoTime();
+                solveMatrix(d, size);
+                matrixTimes[rep] = System.nanoTime() - start;
+
+                naive = new FloydWarshall(a, size, -1);
+                start = System.nanoTime();
+                naive.solveNaive();
+                naiveTimes[rep] = System.nanoTime() - start;
+
+                blocked = new FloydWarshall(a, size, -1);
+                start = System.nanoTime();
+                blocked.solveBlocked();
+                blockedTimes[rep] = System.nanoTime() - start;
+            }
+            long matrixTime = median(matrixTimes), naiveTime = median(naiveTimes), blockedTime = median(blockedTimes);
+
+            boolean same = Arrays.equals(naive.dist, blocked.dist);
+            for (int i = 0; i < size; i++)
+                same &= Arrays.equals(d[i], 0, size, blocked.dist, i * size, (i + 1) * size);
+
+            if (size != n) continue;  // warm-up round
+            System.out.printf("V = %d, %d cores: int[][] %.0f ms, flat naive %.0f ms (%.2fx), blocked %.0f ms (%.2fx), same distances: %b%n",
+                    n, Runtime.getRuntime().availableProcessors(), matrixTime / 1e6,
+                    naiveTime / 1e6, (double) matrixTime / naiveTime, blockedTime / 1e6,
+                    (double) matrixTime / blockedTime, same);
+        }
+    }
+
+    static long median(long[] times) {
+        long[] t = times.clone();
+        Arrays.sort(t);
+        return t[t.length / 2];
+    }
+}
@@ -0,0 +1,397 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+Reproducible timings for the graph programs and the newer graph engines, on graphs
+from GraphGen (same seed -> same graph).
+
+    java GraphBench gen=er,rmat v=256,1024 deg=4,16 threads=1,4 algo=all reps=5 warmup=2
+
+For every (generator, V, degree) each algorithm is set up once, run `warmup` times,
+then timed `reps` times. Reported per algorithm:
+  ms/op   median time of one run
+  MTEPS   edges of the input graph / median time (millions of traversed edges per second,
+          the Graph500 measure - for the closure algorithms it is just edges per second)
+  KB/op   heap allocated during one run, summed over all live threads with
+          com.sun.management.ThreadMXBean (so a little JVM background noise gets in)
+
+Parallel algorithms are run once per thread count inside a ForkJoinPool of that size
+(parallel streams started from a pool worker stay in that pool). Sequential ones are
+run once and show "-" for threads.
+
+System.out is swapped for a null stream while timing, since BFS.bfs and Kruskal.krkl
+print as they go.
+ */
+
+public class GraphBench {
+
+    static final PrintStream NULL_OUT = new PrintStream(OutputStream.nullOutputStream());
+    static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // One benchmarked algorithm. setup and reset are not timed.
+    static abstract class Bench {
+        final String name;
+        final boolean parallel;
+        final int maxV;   // skipped on bigger graphs (n x n matrices, cubic running time)
+
+        Bench(String name, boolean parallel, int maxV) {
+            this.name = name;
+            this.parallel = parallel;
+            this.maxV = maxV;
+        }
+
+        abstract void setup(GraphGen.Edges g);
+
+        void reset() {
+        }
+
+        abstract void run();
+    }
+
+    static List<Bench> all() {
+        List<Bench> list = new ArrayList<>();
+
+        // ---- the original matrix programs ----
+
+        list.add(new Bench("bfs", false, 8192) {
+            int[][] adj;
+            int n;
+
+            void setup(GraphGen.Edges g) {
+                adj = g.matrix(0, false, false);
+                n = g.n;
+            }
+
+            void run() {
+                BFS.bfs(adj, 0, n);
+            }
+        });
+
+        list.add(new Bench("dijkstra", false, 8192) {
+            int[][] a;
+            int n;
+
+            void setup(GraphGen.Edges g) {
+                a = g.matrix(99, true, false);
+                n = g.n;
+            }
+
+            void run() {
+                new Dijkstra(n).dijk(a, 0, n);
+            }
+        });
+
+        list.add(new Bench("prim", false, 8192) {
+            int[][] a;
+            int n;
+
+            void setup(GraphGen.Edges g) {
+                a = g.matrix(0, true, true);
+                n = g.n;
+            }
+
+            void run() {
+                new Prims(n).prim(a, n, 0);
+            }
+        });
+
+        list.add(new Bench("kruskal", false, 1024) {
+            int[][] template, a;
+            int n;
+
+            void setup(GraphGen.Edges g) {
+                // 1-indexed with 99 for no edge. krkl never stops on a disconnected
+                // graph, so missing links i - i+1 are filled in with weight 98.
+                int[][] m = g.matrix(99, true, true);
+                n = g.n;
+                template = new int[n + 1][n + 1];
+                for (int[] row : template) Arrays.fill(row, 99);
+                for (int i = 0; i < n; i++)
+                    for (int j = 0; j < n; j++)
+                        template[i + 1][j + 1] = m[i][j];
+                for (int i = 1; i < n; i++) {
+                    if (template[i][i + 1] == 99) template[i][i + 1] = template[i + 1][i] = 98;
+                }
+            }
+
+            void reset() {
+                a = copy(template);   // krkl overwrites used edges
+            }
+
+            void run() {
+                new Kruskal(n).krkl(a, n);
+            }
+        });
+
+        list.add(new Bench("topo.dfs", false, 8192) {
+            int[][] graph;
+            int n;
+
+            void setup(GraphGen.Edges g) {
+                graph = g.matrix(0, false, false);
+                n = g.n;
+            }
+
+            void run() {
+                boolean[] visited = new boolean[n];
+                java.util.Stack<Integer> stack = new java.util.Stack<>();
+                for (int i = 0; i < n; i++) {
+                    if (!visited[i]) Topo.DFS(i, visited, stack, graph, n);
+                }
+            }
+        });
+
+        list.add(new Bench("warshall", false, 1024) {
+            int[][] template, graph;
+            int n;
+
+            void setup(GraphGen.Edges g) {
+                template = g.matrix(0, false, false);
+                n = g.n;
+            }
+
+            void reset() {
+                graph = copy(template);
+            }
+
+            void run() {
+                Warshall.closure(graph, n);
+            }
+        });
+
+        // ---- the CSR / bitset engines ----
+
+        list.add(new Bench("topokahn.sort", false, Integer.MAX_VALUE) {
+            CSRGraph g;
+
+            void setup(GraphGen.Edges e) {
+                g = e.csr();
+            }
+
+            void run() {
+                try {
+                    TopoKahn.sort(g);
+                } catch (TopoKahn.CycleException ex) {
+                    // not a DAG: the work up to finding the cycle is still measured
+                }
+            }
+        });
+
+        list.add(new Bench("topokahn.levels", true, Integer.MAX_VALUE) {
+            CSRGraph g;
+
+            void setup(GraphGen.Edges e) {
+                g = e.csr();
+            }
+
+            void run() {
+                try {
+                    TopoKahn.levels(g);
+                } catch (TopoKahn.CycleException ex) {
+                    // same as above
+                }
+            }
+        });
+
+        list.add(new Bench("dynamictopo", false, Integer.MAX_VALUE) {
+            GraphGen.Edges e;
+
+            void setup(GraphGen.Edges e) {
+                this.e = e;
+            }
+
+            void run() {
+                DynamicTopo t = new DynamicTopo(e.n);
+                for (int i = 0; i < e.m; i++) t.addEdge(e.src[i], e.dst[i]);
+            }
+        });
+
+        list.add(new Bench("reachability", false, Integer.MAX_VALUE) {
+            CSRGraph g;
+
+            void setup(GraphGen.Edges e) {
+                g = e.csr();
+            }
+
+            void run() {
+                ReachabilityIndex.build(g);
+            }
+        });
+
+        list.add(new Bench("bitwarshall", true, 16384) {
+            BitWarshall template, b;
+
+            void setup(GraphGen.Edges e) {
+                template = new BitWarshall(e.n);
+                for (int i = 0; i < e.m; i++) template.set(e.src[i], e.dst[i]);
+            }
+
+            void reset() {
+                b = new BitWarshall(template.n);
+                System.arraycopy(template.bits, 0, b.bits, 0, b.bits.length);
+            }
+
+            void run() {
+                b.closureBlocked();
+            }
+        });
+
+        list.add(new Bench("floyd.matrix", false, 2048) {
+            int[][] template, d;
+
+            void setup(GraphGen.Edges e) {
+                // the int[][] baseline from FloydWarshall.solveMatrix: INF for no edge
+                template = e.matrix(FloydWarshall.INF, true, false);
+                for (int i = 0; i < e.n; i++) template[i][i] = 0;
+            }
+
+            void reset() {
+                d = copy(template);
+            }
+
+            void run() {
+                FloydWarshall.solveMatrix(d, d.length);
+            }
+        });
+
+        list.add(new Bench("floyd.blocked", true, 2048) {
+            int[][] a;
+            FloydWarshall fw;
+
+            void setup(GraphGen.Edges e) {
+                a = e.matrix(-1, true, false);
+            }
+
+            void reset() {
+                fw = new FloydWarshall(a, a.length, -1);
+            }
+
+            void run() {
+                fw.solveBlocked();
+            }
+        });
+
+        return list;
+    }
+
+    static int[][] copy(int[][] a) {
+        int[][] c = new int[a.length][];
+        for (int i = 0; i < a.length; i++) c[i] = a[i].clone();
+        return c;
+    }
+
+    // Median ns per op and allocated bytes per op
+    static long[] measure(Bench b, GraphGen.Edges g, int warmup, int reps) {
+        b.setup(g);
+        for (int i = 0; i < warmup; i++) {
+            b.reset();
+            b.run();
+        }
+        long[] times = new long[reps];
+        long allocated = 0;
+        for (int i = 0; i < reps; i++) {
+            b.reset();
+            long[] ids = THREADS.getAllThreadIds();
+            long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+            long start = System.nanoTime();
+            b.run();
+            times[i] = System.nanoTime() - start;
+            allocated += allocatedSince(ids, bytes);
+        }
+        Arrays.sort(times);
+        return new long[]{times[reps / 2], allocated / reps};
+    }
+
+    // Bytes allocated by all live threads since the (ids, bytes) snapshot;
+    // threads started after the snapshot count from zero
+    static long allocatedSince(long[] ids, long[] bytes) {
+        HashMap<Long, Long> before = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) before.put(ids[i], bytes[i]);
+        long[] now = THREADS.getAllThreadIds();
+        long[] after = THREADS.getThreadAllocatedBytes(now);
+        long total = 0;
+        for (int i = 0; i < now.length; i++) {
+            if (after[i] < 0) continue;   // thread died in between
+            total += after[i] - Math.max(0, before.getOrDefault(now[i], 0L));
+        }
+        return total;
+    }
+
+    static long[] measureIn(int threads, Bench b, GraphGen.Edges g, int warmup, int reps) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> measure(b, g, warmup, reps)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] gens = {"er"};
+        int[] vs = {256, 1024};
+        double[] degrees = {4, 16};
+        int[] threads = {1, Runtime.getRuntime().availableProcessors()};
+        String algo = "all";
+        int reps = 5, warmup = 2;
+        long seed = 42;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            String key = arg.substring(0, eq), value = arg.substring(eq + 1);
+            switch (key) {
+                case "gen": gens = value.split(","); break;
+                case "v": vs = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "deg": degrees = Arrays.stream(value.split(",")).mapToDouble(Double::parseDouble).toArray(); break;
+                case "threads": threads = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray(); break;
+                case "algo": algo = value; break;
+                case "reps": reps = Integer.parseInt(value); break;
+                case "warmup": warmup = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + key);
+            }
+        }
+        threads = Arrays.stream(threads).distinct().toArray();
+        List<String> wanted = Arrays.asList(algo.split(","));
+
+        System.out.printf("%-16s %-5s %8s %9s %7s %12s %10s %12s%n",
+                "algorithm", "gen", "V", "E", "threads", "ms/op", "MTEPS", "KB/op");
+
+        PrintStream out = System.out;
+        for (String gen : gens) {
+            for (int v : vs) {
+                for (double deg : degrees) {
+                    GraphGen.Edges g = GraphGen.generate(gen, v, deg, seed);
+                    for (Bench b : all()) {
+                        if (!algo.equals("all") && !wanted.contains(b.name)) continue;
+                        if (g.n > b.maxV) {
+                            out.printf("%-16s %-5s %8d %9d %7s %12s%n", b.name, gen, g.n, g.m, "", "skipped (V > " + b.maxV + ")");
+                            continue;
+                        }
+                        int[] ts = b.parallel ? threads : new int[]{threads[0]};
+                        for (int t : ts) {
+                            long[] r;
+                            System.setOut(NULL_OUT);
+                            try {
+                                r = measureIn(t, b, g, warmup, reps);
+                            } finally {
+                                System.setOut(out);
+                            }
+                            double ms = r[0] / 1e6;
+                            out.printf("%-16s %-5s %8d %9d %7s %12.3f %10.2f %12.1f%n",
+                                    b.name, gen, g.n, g.m, b.parallel ? String.valueOf(t) : "-",
+                                    ms, g.m / (r[0] / 1e9) / 1e6, r[1] / 1024.0);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+Seeded random graph generators for benchmarks and tests.
+Same (parameters, seed) -> exactly the same graph on every run and machine.
+
+erdosRenyi  -> n vertices, n * avgDegree edges between uniformly random pairs
+rmat        -> R-MAT / Kronecker (Graph500 style): each edge picks one quadrant of the
+               adjacency matrix with probabilities a, b, c, d and recurses scale times.
+               Gives skewed degrees like social / web graphs. Vertex ids are shuffled so
+               the hubs are not all at the small ids.
+grid        -> rows x cols grid, 4 neighbours in both directions, a few edges removed,
+               like a road network (large diameter, degree <= 4)
+randomDag   -> edges only go forward in a hidden random order, so it is always acyclic
+
+Weights are 1..MAX_WEIGHT so the 99-as-infinity programs (Dijkstra, Prims, Kruskal)
+still work on small graphs. No self loops; duplicate edges are possible (except grid).
+ */
+
+public class GraphGen {
+
+    static final int MAX_WEIGHT = 9;
+
+    // Plain edge list, convertible to the CSR and matrix forms the algorithms take
+    static class Edges {
+        final int n, m;
+        final int[] src, dst, w;
+
+        Edges(int n, int m, int[] src, int[] dst, int[] w) {
+            this.n = n;
+            this.m = m;
+            this.src = src;
+            this.dst = dst;
+            this.w = w;
+        }
+
+        CSRGraph csr() {
+            return CSRGraph.fromEdges(n, src, dst, w, m);
+        }
+
+        // Same as GraphIO.loadMatrix: weighted = false puts 1 on every edge,
+        // undirected = true adds both directions, duplicates keep the smallest weight
+        int[][] matrix(int noEdge, boolean weighted, boolean undirected) {
+            int[][] a = new int[n][n];
+            for (int[] row : a) Arrays.fill(row, noEdge);
+            for (int e = 0; e < m; e++) {
+                int x = weighted ? w[e] : 1, u = src[e], v = dst[e];
+                a[u][v] = a[u][v] == noEdge ? x : Math.min(a[u][v], x);
+                if (undirected) a[v][u] = a[v][u] == noEdge ? x : Math.min(a[v][u], x);
+            }
+            return a;
+        }
+    }
+
+    static Edges erdosRenyi(int n, double avgDegree, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        int m = edgeCount(n, avgDegree);
+        int[] src = new int[m], dst = new int[m], w = new int[m];
+        for (int e = 0; e < m; e++) {
+            int u = r.nextInt(n), v = r.nextInt(n - 1);
+            src[e] = u;
+            dst[e] = v >= u ? v + 1 : v;  // skip the self loop
+            w[e] = 1 + r.nextInt(MAX_WEIGHT);
+        }
+        return new Edges(n, m, src, dst, w);
+    }
+
+    // n = 2^scale vertices, n * edgeFactor edges, Graph500 probabilities
+    static Edges rmat(int scale, double edgeFactor, long seed) {
+        return rmat(scale, edgeFactor, 0.57, 0.19, 0.19, seed);
+    }
+
+    static Edges rmat(int scale, double edgeFactor, double a, double b, double c, long seed) {
+        // every edge is redrawn until u != v, so that has to be possible: two vertices
+        // at least, and some chance of leaving the diagonal quadrants
+        if (scale < 1 || scale > 30) throw new IllegalArgumentException("R-MAT scale must be 1..30, got " + scale);
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+            throw new IllegalArgumentException("R-MAT probabilities must be >= 0 with a + b + c <= 1");
+        }
+        if (b + c == 0) throw new IllegalArgumentException("R-MAT with b = c = 0 only produces self loops");
+        SplittableRandom r = new SplittableRandom(seed);
+        int n = 1 << scale;
+        int m = edgeCount(n, edgeFactor);
+        int[] perm = permutation(n, r);
+        int[] src = new int[m], dst = new int[m], w = new int[m];
+
+        int e = 0;
+        while (e < m) {
+            int u = 0, v = 0;
+            for (int bit = scale - 1; bit >= 0; bit--) {
+                double p = r.nextDouble();
+                if (p < a) {
+                    // top left: nothing set
+                } else if (p < a + b) {
+                    v |= 1 << bit;
+                } else if (p < a + b + c) {
+                    u |= 1 << bit;
+                } else {
+                    u |= 1 << bit;
+                    v |= 1 << bit;
+                }
+            }
+            if (u == v) continue;
+            src[e] = perm[u];
+            dst[e] = perm[v];
+            w[e] = 1 + r.nextInt(MAX_WEIGHT);
+            e++;
+        }
+        return new Edges(n, m, src, dst, w);
+    }
+
+    // rows x cols grid; each undirected street is dropped with probability 1/10
+    static Edges grid(int rows, int cols, long seed) {
+        if (rows < 1 || cols < 1 || (long) rows * cols * 4 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Grid must be at least 1 x 1 and at most ~2^29 cells, got " + rows + " x " + cols);
+        }
+        SplittableRandom r = new SplittableRandom(seed);
+        int n = rows * cols;
+        int max = 4 * n;
+        int[] src = new int[max], dst = new int[max], w = new int[max];
+        int m = 0;
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                int u = y * cols + x;
+                // right and down neighbour, each added in both directions
+                for (int dir = 0; dir < 2; dir++) {
+                    int nx = x + (dir == 0 ? 1 : 0), ny = y + (dir == 1 ? 1 : 0);
+                    if (nx >= cols || ny >= rows || r.nextInt(10) == 0) continue;
+                    int v = ny * cols + nx, weight = 1 + r.nextInt(MAX_WEIGHT);
+                    src[m] = u; dst[m] = v; w[m] = weight; m++;
+                    src[m] = v; dst[m] = u; w[m] = weight; m++;
+                }
+            }
+        }
+        return new Edges(n, m, src, dst, w);
+    }
+
+    // Random DAG: u -> v only if u comes before v in a hidden shuffled order
+    static Edges randomDag(int n, double avgDegree, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        int m = edgeCount(n, avgDegree);
+        int[] perm = permutation(n, r);
+        int[] src = new int[m], dst = new int[m], w = new int[m];
+        for (int e = 0; e < m; e++) {
+            int a = r.nextInt(n), b = r.nextInt(n - 1);
+            if (b >= a) b++;
+            src[e] = perm[Math.min(a, b)];
+            dst[e] = perm[Math.max(a, b)];
+            w[e] = 1 + r.nextInt(MAX_WEIGHT);
+        }
+        return new Edges(n, m, src, dst, w);
+    }
+
+    // n * avgDegree edges between distinct vertices; refuses what can't be generated
+    // or held in one int[] instead of looping forever or failing halfway
+    static int edgeCount(int n, double avgDegree) {
+        if (n < 2) throw new IllegalArgumentException("Need at least 2 vertices for edges without self loops, got " + n);
+        if (!(avgDegree >= 0)) throw new IllegalArgumentException("Average degree must be >= 0, got " + avgDegree);
+        double m = n * avgDegree;
+        if (m > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(n + " vertices x degree " + avgDegree + " is more edges than fit in an int[]");
+        }
+        return (int) m;
+    }
+
+    static int[] permutation(int n, SplittableRandom r) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) p[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            int t = p[i]; p[i] = p[j]; p[j] = t;
+        }
+        return p;
+    }
+
+    // "er", "rmat", "grid" or "dag" with about n vertices (rmat rounds up to a
+    // power of two, grid to a square)
+    static Edges generate(String kind, int n, double avgDegree, long seed) {
+        switch (kind) {
+            case "er":
+                return erdosRenyi(n, avgDegree, seed);
+            case "rmat":
+                if (n < 2) throw new IllegalArgumentException("Need at least 2 vertices, got " + n);
+                return rmat(32 - Integer.numberOfLeadingZeros(n - 1), avgDegree, seed);
+            case "grid": {
+                int side = (int) Math.ceil(Math.sqrt(n));
+                return grid(side, side, seed);
+            }
+            case "dag":
+                return randomDag(n, avgDegree, seed);
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + kind + " (er, rmat, grid, dag)");
+        }
+    }
+
+    // Writes a generated graph in GraphIO's formats: java GraphGen <kind> <n> <degree> <seed> <file>
+    // (binary CSR if the file ends in .csr, edge list text otherwise)
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length != 5) {
+            System.out.println("Usage: java GraphGen er|rmat|grid|dag <n> <avgDegree> <seed> <file>");
+            return;
+        }
+        Edges g = generate(args[0], Integer.parseInt(args[1]), Double.parseDouble(args[2]), Long.parseLong(args[3]));
+        CSRGraph csr = g.csr();
+        if (args[4].endsWith(".csr")) GraphIO.writeBinary(csr, args[4]);
+        else GraphIO.writeText(csr, args[4]);
+        System.out.println("Vertices: " + g.n + ", edges: " + g.m);
+    }
+}
@@ -0,0 +1,342 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+Fast graph loading shared by the graph programs, instead of reading a V x V matrix
+number by number with Scanner.
+
+Two file formats:
+
+1. Edge list text, one edge per line:
+       u v        (unweighted)
+       u v w      (weighted)
+   lines starting with # or % are comments. n = largest vertex id + 1.
+   Parsed with a hand-written tokenizer straight from a byte buffer (no Scanner,
+   no String per token).
+
+2. Binary CSR (see CSRGraph), little endian:
+       int magic "CSR1", int n, long m, int weighted (0/1)
+       int offsets[n+1], int targets[m], int weights[m] (only if weighted)
+   Loaded by memory-mapping the file, so the arrays are copied straight out of
+   the OS page cache with bulk gets.
+
+load() detects the format from the first 4 bytes.
+
+loadMatrix() is only for the old matrix programs (BFS, Dijkstra, Prims, Kruskal,
+Topo, Warshall). It expands the graph into a dense n x n int matrix, so it refuses
+graphs above MATRIX_MAX_VERTICES (16384 vertices = 1GB already): those programs
+stay small-graph only. Big graphs go to the CSR engines, whose mains take the same
+files:  java TopoKahn <graph>,  java ReachabilityIndex <graph>,
+java ShortestPathService <graph>, and for all pairs (n^2 memory)
+java BitWarshall <graph>, java FloydWarshall <graph>. It also refuses weights the program can't tell apart from
+its markers: the no-edge value (0 in Prims, so no zero-weight edges there) and
+anything from 99 up where 99 means infinity (Dijkstra, Prims, Kruskal). Those
+programs also stop at 99 for path lengths, so long paths still need small weights.
+Duplicate edges keep the smallest weight.
+main converts between the two:  java GraphIO txt2bin in.txt out.csr
+                                java GraphIO bin2txt in.csr out.txt
+ */
+
+public class GraphIO {
+
+    static final int MAGIC = 0x31525343;        // "CSR1" read as a little endian int
+    static final int HEADER_BYTES = 20;
+    static final int BUFFER = 1 << 20;
+    static final int MAP_CHUNK = 1 << 30;       // a single mapping is limited to 2GB
+    static final int MATRIX_MAX_VERTICES = 1 << 14;
+
+    // ---------------- load (either format) ----------------
+
+    static CSRGraph load(String file) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(head, 0);
+            boolean binary = head.position() == 4 && head.getInt(0) == MAGIC;
+            return binary ? readBinary(ch) : readText(ch);
+        }
+    }
+
+    // Adjacency matrix for the matrix based programs (BFS, Topo, Warshall).
+    // weighted = false puts 1 on every edge; undirected = true adds both directions.
+    static int[][] loadMatrix(String file, int noEdge, boolean weighted, boolean undirected) throws IOException {
+        return loadMatrix(file, noEdge, Integer.MAX_VALUE, weighted, undirected);
+    }
+
+    // Same, with weights limited to maxWeight (98 for the programs using 99 as infinity)
+    static int[][] loadMatrix(String file, int noEdge, int maxWeight, boolean weighted, boolean undirected) throws IOException {
+        CSRGraph g = load(file);
+        int n = g.n;
+        if (n > MATRIX_MAX_VERTICES) {
+            throw new IllegalArgumentException("Graph has " + n + " vertices, the matrix programs take at most "
+                    + MATRIX_MAX_VERTICES + " (an n x n matrix). Use a CSR engine instead (java TopoKahn / ReachabilityIndex / ShortestPathService <graph>).");
+        }
+        int[][] a = new int[n][n];
+        for (int[] row : a) Arrays.fill(row, noEdge);
+        for (int u = 0; u < n; u++) {
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e];
+                int w = weighted && g.weights != null ? g.weights[e] : 1;
+                if (w == noEdge || w > maxWeight) {
+                    throw new IllegalArgumentException("Edge " + u + " -> " + v + " has weight " + w
+                            + ", which this program can't represent (no edge = " + noEdge
+                            + (maxWeight < Integer.MAX_VALUE ? ", largest weight = " + maxWeight : "") + ")");
+                }
+                a[u][v] = a[u][v] == noEdge ? w : Math.min(a[u][v], w);  // duplicates: keep the cheapest
+                if (undirected) a[v][u] = a[v][u] == noEdge ? w : Math.min(a[v][u], w);
+            }
+        }
+        return a;
+    }
+
+    // ---------------- text edge list ----------------
+
+    // Reads the file in 1MB chunks into a byte[] and hands out one byte at a time
+    static class ByteReader {
+        final FileChannel ch;
+        final byte[] buf = new byte[BUFFER];
+        final ByteBuffer wrap = ByteBuffer.wrap(buf);
+        int pos = 0, len = 0;
+
+        ByteReader(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        // next byte without consuming it, -1 at end of file
+        int peek() throws IOException {
+            if (pos == len) {
+                wrap.clear();
+                int r = ch.read(wrap);
+                if (r <= 0) return -1;
+                pos = 0;
+                len = r;
+            }
+            return buf[pos];
+        }
+    }
+
+    static CSRGraph readText(FileChannel ch) throws IOException {
+        ch.position(0);
+        ByteReader in = new ByteReader(ch);
+
+        int[] src = new int[1024], dst = new int[1024], w = new int[1024];
+        int m = 0, maxId = -1;
+        boolean weighted = false;
+
+        int[] tok = new int[3];
+        int count = 0;          // numbers seen on the current line
+        boolean comment = false;
+        int line = 1;
+
+        while (true) {
+            int b = in.peek();
+            if (b == -1 || b == '\n') {
+                // end of line: store the edge (also for a last line with no newline)
+                if (count != 0) {
+                    if (count < 2) throw new IOException("Line " + line + ": expected 'u v' or 'u v w'");
+                    if (tok[0] < 0 || tok[1] < 0) throw new IOException("Line " + line + ": negative vertex id");
+                    if (m == src.length) {
+                        src = Arrays.copyOf(src, m * 2);
+                        dst = Arrays.copyOf(dst, m * 2);
+                        w = Arrays.copyOf(w, m * 2);
+                    }
+                    src[m] = tok[0];
+                    dst[m] = tok[1];
+                    w[m] = count == 3 ? tok[2] : 1;
+                    if (count == 3) weighted = true;
+                    maxId = Math.max(maxId, Math.max(tok[0], tok[1]));
+                    m++;
+                }
+                if (b == -1) break;
+                in.pos++;
+                count = 0;
+                comment = false;
+                line++;
+            } else if (comment || b == ' ' || b == '\t' || b == '\r' || b == ',') {
+                in.pos++;
+            } else if (b == '#' || b == '%') {
+                comment = true;
+                in.pos++;
+            } else if (b == '-' || (b >= '0' && b <= '9')) {
+                // one number; the inner loop works on the array directly and only
+                // goes through peek() when it runs off the end of the chunk
+                boolean neg = b == '-';
+                if (neg) in.pos++;
+                long value = 0;
+                int digits = 0;
+                while (true) {
+                    if (in.pos == in.len && in.peek() == -1) break;
+                    int c = in.buf[in.pos];
+                    if (c < '0' || c > '9') break;
+                    value = value * 10 + (c - '0');
+                    in.pos++;
+                    if (++digits > 10) break;
+                }
+                if (digits == 0 || value > Integer.MAX_VALUE) throw new IOException("Line " + line + ": bad number");
+                if (count == 3) throw new IOException("Line " + line + ": too many numbers");
+                tok[count++] = neg ? (int) -value : (int) value;
+            } else {
+                throw new IOException("Line " + line + ": unexpected character '" + (char) b + "'");
+            }
+        }
+
+        return CSRGraph.fromEdges(maxId + 1, src, dst, weighted ? w : null, m);
+    }
+
+    static void writeText(CSRGraph g, String file) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER);
+            byte[] digits = new byte[12];
+            for (int u = 0; u < g.n; u++) {
+                for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                    if (buf.remaining() < 40) flush(ch, buf);
+                    putInt(buf, u, digits);
+                    buf.put((byte) ' ');
+                    putInt(buf, g.targets[e], digits);
+                    if (g.weights != null) {
+                        buf.put((byte) ' ');
+                        putInt(buf, g.weights[e], digits);
+                    }
+                    buf.put((byte) '\n');
+                }
+            }
+            flush(ch, buf);
+        }
+    }
+
+    static void putInt(ByteBuffer buf, int x, byte[] digits) {
+        long v = x;
+        if (v < 0) {
+            buf.put((byte) '-');
+            v = -v;
+        }
+        int len = 0;
+        do {
+            digits[len++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        while (len > 0) buf.put(digits[--len]);
+    }
+
+    static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    // ---------------- binary CSR ----------------
+
+    static CSRGraph readBinary(FileChannel ch) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ch.read(head, 0);
+        head.flip();
+        head.getInt();  // magic
+        int n = head.getInt();
+        long m = head.getLong();
+        int flag = head.getInt();
+
+        // check the header against the file before allocating anything from it
+        if (n < 0 || m < 0 || (flag != 0 && flag != 1) || head.position() != HEADER_BYTES) {
+            throw new IOException("Corrupt CSR header: n = " + n + ", m = " + m + ", weighted = " + flag);
+        }
+        if (m > Integer.MAX_VALUE - 8) throw new IOException("Too many edges for int arrays: " + m);
+        boolean weighted = flag == 1;
+        long expected = HEADER_BYTES + 4L * (n + 1) + 4L * m * (weighted ? 2 : 1);
+        if (ch.size() != expected) {
+            throw new IOException("Corrupt or truncated CSR file: header says " + n + " vertices and " + m
+                    + " edges (" + expected + " bytes), but the file has " + ch.size() + " bytes");
+        }
+
+        long pos = HEADER_BYTES;
+        int[] offsets = mapInts(ch, pos, n + 1);
+        pos += 4L * (n + 1);
+        int[] targets = mapInts(ch, pos, (int) m);
+        pos += 4L * m;
+        int[] weights = weighted ? mapInts(ch, pos, (int) m) : null;
+
+        if (offsets[0] != 0 || offsets[n] != m) throw new IOException("Corrupt CSR offsets: must run from 0 to " + m);
+        for (int u = 0; u < n; u++) {
+            if (offsets[u] > offsets[u + 1]) throw new IOException("Corrupt CSR offsets at vertex " + u);
+        }
+        for (int t : targets) {
+            if (t < 0 || t >= n) throw new IOException("Corrupt CSR file: edge target " + t + " outside 0.." + (n - 1));
+        }
+        return new CSRGraph(n, offsets, targets, weights);
+    }
+
+    // Memory-map [pos, pos + 4*count) and bulk copy it into an int[]
+    static int[] mapInts(FileChannel ch, long pos, int count) throws IOException {
+        int[] out = new int[count];
+        int done = 0;
+        while (done < count) {
+            int chunk = Math.min(count - done, MAP_CHUNK / 4);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, pos + 4L * done, 4L * chunk);
+            IntBuffer ints = map.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(out, done, chunk);
+            done += chunk;
+        }
+        return out;
+    }
+
+    static void writeBinary(CSRGraph g, String file) throws IOException {
+        Path path = Paths.get(file);
+        Files.deleteIfExists(path);
+        long m = g.targets.length;
+        long size = HEADER_BYTES + 4L * (g.n + 1) + 4L * m * (g.weights != null ? 2 : 1);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel ch = raf.getChannel()) {
+            raf.setLength(size);
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(MAGIC).putInt(g.n).putLong(m).putInt(g.weights != null ? 1 : 0);
+            head.flip();
+            ch.write(head, 0);
+
+            long pos = HEADER_BYTES;
+            pos = mapPut(ch, pos, g.offsets);
+            pos = mapPut(ch, pos, g.targets);
+            if (g.weights != null) mapPut(ch, pos, g.weights);
+        }
+    }
+
+    static long mapPut(FileChannel ch, long pos, int[] a) throws IOException {
+        int done = 0;
+        while (done < a.length) {
+            int chunk = Math.min(a.length - done, MAP_CHUNK / 4);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_WRITE, pos + 4L * done, 4L * chunk);
+            map.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(a, done, chunk);
+            map.force();
+            done += chunk;
+        }
+        return pos + 4L * a.length;
+    }
+
+    // ---------------- conversion tool ----------------
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !(args[0].equals("txt2bin") || args[0].equals("bin2txt"))) {
+            System.out.println("Usage: java GraphIO txt2bin <edges.txt> <graph.csr>");
+            System.out.println("       java GraphIO bin2txt <graph.csr> <edges.txt>");
+            return;
+        }
+
+        long start = System.nanoTime();
+        CSRGraph g = load(args[1]);
+        long loaded = System.nanoTime();
+        if (args[0].equals("txt2bin")) writeBinary(g, args[2]);
+        else writeText(g, args[2]);
+        long end = System.nanoTime();
+
+        System.out.println("Vertices: " + g.n + ", edges: " + g.edgeCount() + (g.weights != null ? " (weighted)" : ""));
+        System.out.println("Load: " + (loaded - start) / 1e6 + " ms, write: " + (end - loaded) / 1e6 + " ms");
+    }
+}
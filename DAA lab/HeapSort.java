@@ -24,6 +24,10 @@ public class HeapSort {
         int largest = i;            // Initialize largest as root
         int left = 2 * i + 1;       // Left child index
         int right = 2 * i + 2;      // Right child index
+        if (Metrics.ENABLED) {
+            Metrics.Counter.HEAP_OPS.inc();
+            Metrics.Counter.COMPARISONS.add((left < n ? 1 : 0) + (right < n ? 1 : 0));
+        }
 
         // If left child is larger than root
         if (left < n && arr[left] > arr[largest]) {
@@ -44,6 +48,7 @@ public class HeapSort {
 
     // Utility function to swap two elements in the array
     public static void swap(int[] arr, int i, int j) {
+        if (Metrics.ENABLED) Metrics.Counter.SWAPS.inc();
         int temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
@@ -62,6 +67,7 @@ public class HeapSort {
         long startTime = System.nanoTime();
         heapSort(arr);
         long endTime = System.nanoTime();
+        if (Metrics.ENABLED) Metrics.time("HeapSort.heapSort", endTime - startTime);
         System.out.println("Sorted array: " + Arrays.toString(arr));
         long duration = endTime - startTime;
         System.out.println("Time taken for sorting: " + duration + " nanoseconds");
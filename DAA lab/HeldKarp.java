@@ -0,0 +1,227 @@
+import java.util.Scanner;
+import java.util.stream.IntStream;
+
+/*
+Held-Karp TSP: the real bitmask DP.
+
+TSP_DP memoizes on (currentCity, countVisited), which forgets WHICH cities were visited,
+so two different partial tours with the same count share one answer. Held-Karp keys the
+state on the visited set itself:
+
+dp[S][j] = min cost to start at city 0, visit exactly the cities in S, and end at city j (j in S)
+dp[{j}][j] = graph[0][j]
+dp[S][j] = min over i in S - {j} of dp[S - {j}][i] + graph[i][j]
+answer   = min over j of dp[all][j] + graph[j][0]
+
+City 0 is the fixed start, so S only covers cities 1..n-1 (m = n-1 bits).
+dp is one flat int[] with a cell only for the valid states (j in S): state (S, j) is
+stored at (S without bit j, squeezed to m-1 bits) * m + j, so m * 2^(m-1) cells
+instead of m * 2^m. parent[] (a byte per state) stores the best i so the tour can
+be rebuilt. 5 bytes per state, so the heap needed (-Xmx) is about
+
+    n = 22: 110MB   23: 230MB   24: 480MB   25: 1GB   26: 2.1GB   27: 4.4GB   28: 9GB
+
+and tsp() refuses up front (IllegalArgumentException) if the heap can't hold it.
+n = 29 doesn't fit int indexes at all.
+
+Every S with k bits only reads sets with k-1 bits, so the DP runs layer by layer
+on the popcount. Inside a layer all sets are independent: the layer is cut into
+equal chunks, each chunk jumps to its first set by unranking and walks the rest
+with Gosper's hack (next bigger number with the same popcount), chunks run in parallel.
+ */
+
+public class HeldKarp {
+
+    static final int INF = Integer.MAX_VALUE;  // dp value for unreachable states
+    static final int CHUNK = 1 << 12;          // subsets per parallel task
+
+    // Returns the minimum tour cost (TSP_DP.INF if no tour) and fills tour[0..n] = 0 ... 0.
+    // layerNanos[k] gets the time spent on subsets of size k (may be null).
+    public static int tsp(int[][] graph, int[] tour, long[] layerNanos) {
+        int n = graph.length;
+        if (n == 1) {
+            tour[0] = tour[1] = 0;
+            return 0;
+        }
+
+        int m = n - 1;
+        long states = (long) m << (m - 1);
+        if (states > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many cities for Held-Karp: " + n + " (at most 28)");
+        }
+        Runtime rt = Runtime.getRuntime();
+        long bytes = states * 5;  // int dp + byte parent
+        long available = rt.maxMemory() - (rt.totalMemory() - rt.freeMemory());
+        if (bytes > available) {
+            throw new IllegalArgumentException("Held-Karp for " + n + " cities needs " + (bytes >> 20)
+                    + "MB for its tables, only " + (available >> 20) + "MB of heap is free (raise -Xmx)");
+        }
+
+        int[] dp = new int[(int) states];
+        byte[] parent = new byte[(int) states];
+        long[][] binom = binomials(m);
+
+        // Layer 1: go straight from city 0 to j
+        java.util.Arrays.fill(dp, INF);
+        for (int j = 0; j < m; j++) {
+            dp[index(1 << j, j, m)] = cost(graph, 0, j + 1);
+            parent[index(1 << j, j, m)] = -1;  // came from the start city
+        }
+
+        // Layers 2..m, each one in parallel
+        for (int k = 2; k <= m; k++) {
+            long start = System.nanoTime();
+            final int size = k;
+            long total = binom[m][k];
+            int chunks = (int) ((total + CHUNK - 1) / CHUNK);
+
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                long first = (long) c * CHUNK;
+                long count = Math.min(CHUNK, total - first);
+                int set = unrank(first, size, binom);
+                for (long t = 0; t < count; t++) {
+                    relax(set, m, graph, dp, parent);
+                    set = nextSameBits(set);
+                }
+                if (Metrics.ENABLED) Metrics.Counter.DP_CELLS.add(count * size);
+            });
+
+            if (layerNanos != null) layerNanos[k] = System.nanoTime() - start;
+        }
+
+        // Close the tour back to city 0
+        int all = (1 << m) - 1;
+        long best = INF;
+        int last = -1;
+        for (int j = 0; j < m; j++) {
+            int d = dp[index(all, j, m)];
+            int back = cost(graph, j + 1, 0);
+            if (d == INF || back == INF) continue;
+            if ((long) d + back < best) {
+                best = (long) d + back;
+                last = j;
+            }
+        }
+        if (last == -1) return TSP_DP.INF;
+
+        // Rebuild path from the parent table (walks backwards from the end)
+        tour[0] = 0;
+        tour[n] = 0;
+        int set = all, j = last;
+        for (int pos = m; pos >= 1; pos--) {
+            tour[pos] = j + 1;
+            int prev = parent[index(set, j, m)];
+            set ^= 1 << j;
+            j = prev;
+        }
+        return (int) best;
+    }
+
+    // Fills dp[set][j] for every j in set from the layer below
+    static void relax(int set, int m, int[][] graph, int[] dp, byte[] parent) {
+        for (int js = set; js != 0; js &= js - 1) {
+            int j = Integer.numberOfTrailingZeros(js);
+            int prevSet = set ^ (1 << j);
+            long best = INF;
+            int from = -1;
+
+            for (int is = prevSet; is != 0; is &= is - 1) {
+                int i = Integer.numberOfTrailingZeros(is);
+                int d = dp[index(prevSet, i, m)];
+                int c = cost(graph, i + 1, j + 1);
+                if (d == INF || c == INF) continue;
+                if ((long) d + c < best) {
+                    best = (long) d + c;
+                    from = i;
+                }
+            }
+
+            int at = index(set, j, m);
+            dp[at] = (int) Math.min(best, INF);
+            parent[at] = (byte) from;
+        }
+    }
+
+    // Cell of state (set, j), j in set: drop bit j from set (the bits above it move
+    // down one), which leaves an (m-1)-bit number, then times m plus j
+    static int index(int set, int j, int m) {
+        int below = set & ((1 << j) - 1);
+        int above = (set >>> (j + 1)) << j;
+        return (above | below) * m + j;
+    }
+
+    // TSP_DP.INF in the matrix means there is no direct path
+    static int cost(int[][] graph, int from, int to) {
+        int c = graph[from][to];
+        return c >= TSP_DP.INF ? INF : c;
+    }
+
+    // Gosper's hack: next larger integer with the same number of set bits
+    static int nextSameBits(int x) {
+        int c = x & -x;
+        int r = x + c;
+        return (((r ^ x) >>> 2) / c) | r;
+    }
+
+    // The rank-th k-bit set in increasing order (combinatorial number system)
+    static int unrank(long rank, int k, long[][] binom) {
+        int set = 0;
+        int bit = binom.length - 1;
+        for (int pos = k; pos >= 1; pos--) {
+            while (binom[bit][pos] > rank) bit--;
+            set |= 1 << bit;
+            rank -= binom[bit][pos];
+            bit--;
+        }
+        return set;
+    }
+
+    // Pascal's triangle, binom[a][b] = a choose b
+    static long[][] binomials(int m) {
+        long[][] binom = new long[m + 1][m + 1];
+        for (int a = 0; a <= m; a++) {
+            binom[a][0] = 1;
+            for (int b = 1; b <= a; b++) {
+                binom[a][b] = binom[a - 1][b - 1] + binom[a - 1][b];
+            }
+        }
+        return binom;
+    }
+
+    public static void main(String[] args) {
+        Scanner sc = new Scanner(System.in);
+
+        // Read number of cities (nodes)
+        System.out.println("Enter the total number of cities: ");
+        int n = sc.nextInt();
+
+        // Read cost matrix
+        int[][] graph = new int[n][n];
+        System.out.println("Enter the directed cost matrix (enter " + TSP_DP.INF + " if path does not exist):");
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                graph[i][j] = sc.nextInt();
+            }
+        }
+
+        int[] tour = new int[n + 1];
+        long[] layerNanos = new long[n];
+        int minCost = tsp(graph, tour, layerNanos);
+
+        for (int k = 2; k < n; k++) {
+            System.out.println("Layer " + k + ": " + layerNanos[k] / 1e6 + " ms");
+        }
+
+        if (minCost == TSP_DP.INF) {
+            System.out.println("\nNo tour exists");
+        } else {
+            System.out.println("\nMinimum cost: " + minCost);
+            System.out.print("Tour path: 0");
+            for (int i = 1; i <= n; i++) {
+                System.out.print(" -> " + tour[i]);
+            }
+            System.out.println();
+        }
+        sc.close();
+    }
+}
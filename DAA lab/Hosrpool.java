@@ -30,6 +30,7 @@ public class Hosrpool {
             while( k<m && pattern.charAt(m-1-k) == text.charAt(i-k)){
                 k++;
             }
+            if (Metrics.ENABLED) Metrics.Counter.COMPARISONS.add(k < m ? k + 1 : k);  // last one was the mismatch
             if(k==m){
                 return i - m + 1;   // match found
             } else{
@@ -49,6 +50,7 @@ public class Hosrpool {
         long startTime = System.nanoTime();
         int index = horspoolSearch(text, pattern);
         long endTime = System.nanoTime();
+        if (Metrics.ENABLED) Metrics.time("Hosrpool.horspoolSearch", endTime - startTime);
         if (index != -1)
         {
             System.out.println("Pattern found at index: " + index);
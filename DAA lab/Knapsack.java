@@ -23,10 +23,64 @@ public class Knapsack {
                 }
             }
         }
+        if (Metrics.ENABLED) Metrics.Counter.DP_CELLS.add((long) (n + 1) * (capacity + 1));
         displayMatrix(dp); // Print DP table for visualization
         return dp[n][capacity]; // Final answer
     }
 
+    // Answers many capacities with one DP pass.
+    // Only the last row is kept: row[w] = best value with weight <= w,
+    // so every capacity up to the max is read straight from it.
+    public static int[] knapsackBatch(int[] weights, int[] values, int[] capacities) {
+        int maxCapacity = 0;
+        for (int c : capacities) {
+            maxCapacity = Math.max(maxCapacity, c);
+        }
+
+        Incremental table = new Incremental(maxCapacity);
+        table.addItems(weights, values);
+        return table.query(capacities);
+    }
+
+    // Keeps the final DP row so newly added items are applied on top of it
+    // instead of recomputing the whole table.
+    static class Incremental {
+        int[] row;  // row[w] = best value using the items added so far
+
+        Incremental(int maxCapacity) {
+            row = new int[maxCapacity + 1];  // no items: all zeros
+        }
+
+        void addItems(int[] weights, int[] values) {
+            for (int i = 0; i < weights.length; i++) {
+                addItem(weights[i], values[i]);
+            }
+        }
+
+        void addItem(int weight, int value) {
+            // go right to left so each item is used at most once (0/1 knapsack)
+            for (int w = row.length - 1; w >= weight; w--) {
+                row[w] = Math.max(row[w], value + row[w - weight]);
+            }
+            if (Metrics.ENABLED) Metrics.Counter.DP_CELLS.add(Math.max(0, row.length - weight));
+        }
+
+        int query(int capacity) {
+            if (capacity < 0 || capacity >= row.length) {
+                throw new IllegalArgumentException("Capacity " + capacity + " is outside 0.." + (row.length - 1));
+            }
+            return row[capacity];
+        }
+
+        int[] query(int[] capacities) {
+            int[] result = new int[capacities.length];
+            for (int i = 0; i < capacities.length; i++) {
+                result[i] = query(capacities[i]);
+            }
+            return result;
+        }
+    }
+
     // Utility function to print the DP matrix
     public static void displayMatrix(int[][] matrix) {
         for (int[] ints : matrix) {
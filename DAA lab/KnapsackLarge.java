@@ -0,0 +1,262 @@
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.stream.IntStream;
+
+/*
+Two 0/1 knapsack engines for big capacities, where the full dp[n+1][W+1] table
+from Knapsack.knapsack can't be allocated.
+
+parallelDP  -> same recurrence as Knapsack.knapsack, but only keeps two rows
+               (prev, cur). Each row is cut into column blocks that fit in cache
+               and the blocks are filled in parallel (cur only reads prev, so
+               blocks never depend on each other).
+
+branchAndBound -> for huge W the DP is useless, so search over items instead.
+               Items are sorted by value/weight ratio, every node is bounded with
+               the fractional knapsack (LP relaxation) and nodes are expanded
+               best-first using a max-heap on the bound, kept in primitive arrays.
+
+solve      -> picks the engine from n and W.
+ */
+
+public class KnapsackLarge {
+
+    static final int BLOCK = 1 << 14;                 // 16K ints = 64KB per block, fits in L2
+    static final long DP_MAX_CAPACITY = 100_000_000L;  // two int rows of this size = ~800MB
+    static final long DP_MAX_CELLS = 20_000_000_000L;  // n * W above this is too slow for DP
+
+    // Parallel row-by-row DP, O(n * W) time, O(W) memory
+    public static int parallelDP(int[] weights, int[] values, int capacity) {
+        int n = weights.length;
+        int[] prev = new int[capacity + 1];   // row i-1 (starts as row 0, all zeros)
+        int[] cur = new int[capacity + 1];    // row i
+        int blocks = (capacity + BLOCK) / BLOCK;
+
+        for (int i = 0; i < n; i++) {
+            final int wt = weights[i], val = values[i];
+            final int[] p = prev, c = cur;
+
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                int from = b * BLOCK;
+                int to = Math.min(capacity, from + BLOCK - 1);
+
+                // columns smaller than the item weight: can't include it
+                int split = Math.min(to + 1, Math.max(from, wt));
+                System.arraycopy(p, from, c, from, split - from);
+
+                // Max of including or excluding the current item
+                for (int w = split; w <= to; w++) {
+                    int take = val + p[w - wt];
+                    c[w] = Math.max(p[w], take);
+                }
+            });
+
+            if (Metrics.ENABLED) Metrics.Counter.DP_CELLS.add(capacity + 1);
+            int[] t = prev; prev = cur; cur = t;  // swap rows
+        }
+        return prev[capacity];
+    }
+
+    // Best-first branch and bound, works for any W (even 10^12)
+    public static long branchAndBound(int[] weights, int[] values, long capacity) {
+        // zero-weight items cost no room, so every one with a positive value is
+        // taken up front. Only the positive-weight items are branched on (a zero
+        // weight would have an infinite ratio and break the fractional bound).
+        long free = 0;
+        int n = 0;
+        Integer[] order = new Integer[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] == 0) free += Math.max(0, values[i]);
+            else order[n++] = i;
+        }
+        order = Arrays.copyOf(order, n);
+
+        // sort items by value/weight ratio (highest first)
+        Arrays.sort(order, (a, b) -> Double.compare(
+                (double) values[b] / weights[b],
+                (double) values[a] / weights[a]));
+
+        long[] w = new long[n];
+        long[] v = new long[n];
+        for (int i = 0; i < n; i++) {
+            w[i] = weights[order[i]];
+            v[i] = values[order[i]];
+        }
+
+        // greedy answer is a valid starting lower bound
+        long best = 0, room = capacity;
+        for (int i = 0; i < n; i++) {
+            if (w[i] <= room) {
+                room -= w[i];
+                best += v[i];
+            }
+        }
+
+        NodeHeap heap = new NodeHeap();
+        heap.push(bound(0, 0, 0, w, v, capacity), 0, 0, 0);
+
+        while (heap.size > 0) {
+            double ub = heap.bound[0];
+            if (ub <= best) break;  // best-first: nothing left can beat best
+
+            int level = heap.level[0];
+            long value = heap.value[0];
+            long weight = heap.weight[0];
+            heap.pop();
+
+            if (level == n) continue;
+
+            // branch 1: include item 'level'
+            long inW = weight + w[level];
+            if (inW <= capacity) {
+                long inV = value + v[level];
+                if (inV > best) best = inV;
+                double b = bound(level + 1, inV, inW, w, v, capacity);
+                if (b > best) heap.push(b, level + 1, inV, inW);
+            }
+
+            // branch 2: exclude item 'level'
+            double b = bound(level + 1, value, weight, w, v, capacity);
+            if (b > best) heap.push(b, level + 1, value, weight);
+        }
+        return best + free;
+    }
+
+    // Fractional knapsack on the remaining items = upper bound of this node
+    static double bound(int level, long value, long weight, long[] w, long[] v, long capacity) {
+        double result = value;
+        long room = capacity - weight;
+        for (int i = level; i < w.length; i++) {
+            if (w[i] <= room) {
+                room -= w[i];
+                result += v[i];
+            } else {
+                result += (double) v[i] * room / w[i];  // take a fraction of this item
+                break;
+            }
+        }
+        return result;
+    }
+
+    // Picks DP when the table is affordable, otherwise branch and bound
+    public static long solve(int[] weights, int[] values, long capacity) {
+        int n = weights.length;
+        if (capacity <= DP_MAX_CAPACITY && n * capacity <= DP_MAX_CELLS) {
+            return parallelDP(weights, values, (int) capacity);
+        }
+        return branchAndBound(weights, values, capacity);
+    }
+
+    // Max-heap on the bound, nodes stored in parallel primitive arrays (no objects)
+    static class NodeHeap {
+        double[] bound = new double[64];
+        int[] level = new int[64];
+        long[] value = new long[64];
+        long[] weight = new long[64];
+        int size = 0;
+
+        void push(double b, int l, long val, long wt) {
+            if (Metrics.ENABLED) Metrics.Counter.HEAP_OPS.inc();
+            if (size == bound.length) {
+                int cap = size * 2;
+                bound = Arrays.copyOf(bound, cap);
+                level = Arrays.copyOf(level, cap);
+                value = Arrays.copyOf(value, cap);
+                weight = Arrays.copyOf(weight, cap);
+            }
+            int i = size++;
+            // sift up
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (bound[parent] >= b) break;
+                move(parent, i);
+                i = parent;
+            }
+            bound[i] = b; level[i] = l; value[i] = val; weight[i] = wt;
+        }
+
+        void pop() {
+            if (Metrics.ENABLED) Metrics.Counter.HEAP_OPS.inc();
+            size--;
+            if (size == 0) return;
+            double b = bound[size];
+            int l = level[size];
+            long val = value[size], wt = weight[size];
+
+            // sift down the last node from the root
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && bound[child + 1] > bound[child]) child++;
+                if (bound[child] <= b) break;
+                move(child, i);
+                i = child;
+            }
+            bound[i] = b; level[i] = l; value[i] = val; weight[i] = wt;
+        }
+
+        void move(int from, int to) {
+            bound[to] = bound[from];
+            level[to] = level[from];
+            value[to] = value[from];
+            weight[to] = weight[from];
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("check")) {
+            check(args.length > 1 ? Integer.parseInt(args[1]) : 3000);
+            return;
+        }
+
+        Scanner scanner = new Scanner(System.in);
+
+        System.out.print("Enter the number of items: ");
+        int n = scanner.nextInt();
+        int[] weights = new int[n];
+        int[] values = new int[n];
+
+        System.out.println("Enter the weights of the items:");
+        for (int i = 0; i < n; i++) {
+            weights[i] = scanner.nextInt();
+        }
+
+        System.out.println("Enter the values of the items:");
+        for (int i = 0; i < n; i++) {
+            values[i] = scanner.nextInt();
+        }
+
+        System.out.print("Enter the knapsack capacity: ");
+        long capacity = scanner.nextLong();
+
+        long start = System.nanoTime();
+        long maxValue = solve(weights, values, capacity);
+        long end = System.nanoTime();
+
+        System.out.println("Maximum value: " + maxValue);
+        System.out.println("Time taken: " + (end - start) / 1e6 + " milliseconds");
+
+        scanner.close();
+    }
+
+    // Branch and bound against the plain DP on small random instances, about a
+    // third of the weights zero (these used to be ordered wrongly and get pruned)
+    static void check(int instances) {
+        int[] w0 = {0, 0, 8, 0, 2, 7, 11, 5, 14};
+        int[] v0 = {27, 2, 19, 19, 7, 21, 3, 0, 0};
+        int failed = branchAndBound(w0, v0, 7) == 69 ? 0 : 1;
+
+        java.util.Random r = new java.util.Random(1);
+        for (int t = 0; t < instances; t++) {
+            int n = 1 + r.nextInt(12), capacity = r.nextInt(30);
+            int[] w = new int[n], v = new int[n];
+            for (int i = 0; i < n; i++) {
+                w[i] = r.nextInt(3) == 0 ? 0 : 1 + r.nextInt(15);
+                v[i] = r.nextInt(30);
+            }
+            if (branchAndBound(w, v, capacity) != parallelDP(w, v, capacity)) failed++;
+        }
+        System.out.println((instances + 1) + " instances, " + failed + " mismatches");
+    }
+}
@@ -2,7 +2,16 @@ import java.util.*;
 
 public class Kruskal {
 
-    int[] parent = new int[10];
+    int[] parent;
+
+    Kruskal() {
+        this(9);
+    }
+
+    // vertices are numbered 1..n
+    Kruskal(int n) {
+        parent = new int[n + 1];
+    }
 
     int find(int m){
         int p = m;
@@ -36,6 +45,8 @@ public class Kruskal {
                }
            }
 
+           if (Metrics.ENABLED) Metrics.Counter.COMPARISONS.add((long) n * n);
+
            // Step 2: Check if adding the edge forms a cycle
            i = find(u);
            j = find(v);
@@ -53,18 +64,29 @@ public class Kruskal {
     }
 
 
-    public static void main(String[] args) {
-        int[][] a =new int[10][10];
+    public static void main(String[] args) throws java.io.IOException {
+        int[][] a;
         int i,j;
-        System.out.println("Enter the number of vertices of the graph");
         Scanner sc=new Scanner(System.in);
         int n;
-        n=sc.nextInt();
-        System.out.println("Enter the weighted matrix");
-        for(i=1;i<=n;i++)
-            for(j=1;j<=n;j++)
-                a[i][j]=sc.nextInt();
-        Kruskal k=new Kruskal();
+        if(args.length > 0){
+            // weighted edge list or binary CSR file (see GraphIO), vertex v of the file becomes v+1 here
+            int[][] g = GraphIO.loadMatrix(args[0], 99, 98, true, true);
+            n = g.length;
+            a = new int[n+1][n+1];
+            for(i=0;i<=n;i++)
+                for(j=0;j<=n;j++)
+                    a[i][j] = (i==0 || j==0) ? 99 : g[i-1][j-1];
+        } else {
+            a = new int[10][10];
+            System.out.println("Enter the number of vertices of the graph");
+            n=sc.nextInt();
+            System.out.println("Enter the weighted matrix");
+            for(i=1;i<=n;i++)
+                for(j=1;j<=n;j++)
+                    a[i][j]=sc.nextInt();
+        }
+        Kruskal k=new Kruskal(n);
         k.krkl(a,n);
         sc.close();
     }
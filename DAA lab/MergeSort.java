@@ -21,6 +21,8 @@ public class MergeSort {
             }
         }
 
+        if (Metrics.ENABLED) Metrics.Counter.COMPARISONS.add(k);  // one per step of the main merge
+
         for(; i<mid+1; i++){
             temp[k] = arr[i];
             k++;
@@ -67,6 +69,7 @@ public class MergeSort {
             long start =  System.nanoTime();
             ms.mergeSort(arr, 0, arr.length - 1);
             long end = System.nanoTime();
+            if (Metrics.ENABLED) Metrics.time("MergeSort.mergeSort", end - start);
 
             double duration = (end - start);
             System.out.println("Elements after Sorting are");
@@ -0,0 +1,189 @@
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/*
+Opt-in operation counters and timers for the algorithms.
+
+Off by default. Turn on with   java -Ddaa.metrics=true HeapSort
+and a snapshot is printed to stderr when the program exits.
+
+Every hook in the algorithms is written as
+
+    if (Metrics.ENABLED) Metrics.Counter.SWAPS.inc();
+
+ENABLED is a static final boolean, so when it is false the JIT drops the whole
+statement and the loops run exactly as before.
+
+Counters are LongAdders (one cell per contending thread, summed on read), so the
+parallel algorithms can count without fighting over one cache line.
+
+Timers keep a histogram with one bucket per power of two nanoseconds
+(bucket b holds durations in [2^b, 2^(b+1))), plus count, total and max.
+Percentiles are read as the upper edge of their bucket, so they are within 2x.
+
+JFR: with a recording started at launch (java -XX:StartFlightRecording ... -Ddaa.metrics=true)
+every timed operation is also a "daa.Timing" event, and the counters are
+emitted once a second as a "daa.Counters" event.
+ */
+
+public class Metrics {
+
+    static final boolean ENABLED = Boolean.getBoolean("daa.metrics");
+
+    enum Counter {
+        COMPARISONS,
+        SWAPS,
+        RELAXATIONS,      // successful edge relaxations (shortest paths / MST keys)
+        HEAP_OPS,         // heapify / push / pop steps
+        DP_CELLS,         // dynamic programming table entries filled
+        BACKTRACK_NODES;  // nodes of a backtracking search tree visited
+
+        final LongAdder adder = new LongAdder();
+
+        void inc() {
+            adder.increment();
+        }
+
+        void add(long x) {
+            adder.add(x);
+        }
+
+        long get() {
+            return adder.sum();
+        }
+    }
+
+    static class Timer {
+        final String name;
+        final LongAdder[] buckets = new LongAdder[64];
+        final LongAdder count = new LongAdder(), total = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Timer(String name) {
+            this.name = name;
+            for (int b = 0; b < 64; b++) buckets[b] = new LongAdder();
+        }
+
+        void record(long nanos) {
+            nanos = Math.max(1, nanos);
+            buckets[63 - Long.numberOfLeadingZeros(nanos)].increment();
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        // upper edge of the bucket holding the p-th percentile (0 < p <= 1)
+        long percentile(double p) {
+            long n = count.sum(), seen = 0;
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(p * n);
+            for (int b = 0; b < 64; b++) {
+                seen += buckets[b].sum();
+                if (seen >= rank) return b == 62 ? Long.MAX_VALUE : (1L << (b + 1)) - 1;
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (LongAdder a : buckets) a.reset();
+            count.reset();
+            total.reset();
+            max.reset();
+        }
+    }
+
+    static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    @Name("daa.Timing")
+    @Label("Algorithm Timing")
+    @Category("DAA")
+    static class TimingEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("daa.Counters")
+    @Label("Algorithm Counters")
+    @Category("DAA")
+    @Description("Totals of the Metrics counters since start")
+    @Period("1 s")
+    static class CountersEvent extends Event {
+        @Label("Comparisons") long comparisons;
+        @Label("Swaps") long swaps;
+        @Label("Relaxations") long relaxations;
+        @Label("Heap Operations") long heapOps;
+        @Label("DP Cells") long dpCells;
+        @Label("Backtrack Nodes") long backtrackNodes;
+    }
+
+    static {
+        // Only hook into JFR if it was started with the JVM: starting it from here
+        // would put ~1s of JFR setup inside whatever is being timed first.
+        if (ENABLED && FlightRecorder.isInitialized()) {
+            FlightRecorder.addPeriodicEvent(CountersEvent.class, () -> {
+                CountersEvent e = new CountersEvent();
+                e.comparisons = Counter.COMPARISONS.get();
+                e.swaps = Counter.SWAPS.get();
+                e.relaxations = Counter.RELAXATIONS.get();
+                e.heapOps = Counter.HEAP_OPS.get();
+                e.dpCells = Counter.DP_CELLS.get();
+                e.backtrackNodes = Counter.BACKTRACK_NODES.get();
+                e.commit();
+            });
+        }
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> print(System.err)));
+        }
+    }
+
+    static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    // Records one run of `operation` that took `nanos`
+    static void time(String operation, long nanos) {
+        timer(operation).record(nanos);
+        TimingEvent e = new TimingEvent();
+        if (e.isEnabled()) {
+            e.operation = operation;
+            e.elapsed = nanos;
+            e.commit();
+        }
+    }
+
+    static void reset() {
+        for (Counter c : Counter.values()) c.adder.reset();
+        for (Timer t : TIMERS.values()) t.reset();
+    }
+
+    static void print(PrintStream out) {
+        out.println("---- metrics ----");
+        for (Counter c : Counter.values()) {
+            long v = c.get();
+            if (v != 0) out.printf("%-16s %,d%n", c, v);
+        }
+        for (Timer t : new TreeMap<>(TIMERS).values()) {
+            long n = t.count.sum();
+            if (n == 0) continue;
+            out.printf("%-24s n=%d mean=%.3f ms p50<=%.3f ms p99<=%.3f ms max=%.3f ms%n", t.name, n,
+                    t.total.sum() / 1e6 / n, t.percentile(0.5) / 1e6, t.percentile(0.99) / 1e6, t.max.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+Counts N-Queens solutions (no printing) using bitmasks instead of scanning the board.
+
+For the current row:
+cols = columns already taken
+ld   = squares attacked along "\" diagonals, shifted one step left each row
+rd   = squares attacked along "/" diagonals, shifted one step right each row
+
+free = full & ~(cols | ld | rd)   -> every safe square of the row in one step
+bit  = free & -free               -> lowest free square (lowest set bit)
+
+Mirror symmetry: every solution flipped left-right is another solution, so only
+queens in the left half of row 0 are tried and the count is doubled. For odd n the
+middle column of row 0 is handled by putting row 1 in the left half (also doubled).
+
+Every valid (row 0, row 1) pair is an independent ForkJoin task.
+ */
+
+public class NQueensBitmask {
+
+    public static long countSolutions(int n) {
+        if (n < 1 || n > 31) throw new IllegalArgumentException("n must be 1..31");
+        if (n == 1) return 1;
+
+        int full = (1 << n) - 1;
+        List<PrefixTask> tasks = new ArrayList<>();
+
+        for (int c0 = 0; c0 < (n + 1) / 2; c0++) {
+            boolean middle = (n % 2 == 1) && c0 == n / 2;
+            int bit0 = 1 << c0;
+            int free1 = full & ~(bit0 | bit0 << 1 | bit0 >>> 1);
+
+            for (int c1 = 0; c1 < n; c1++) {
+                int bit1 = 1 << c1;
+                if ((free1 & bit1) == 0) continue;
+                if (middle && c1 >= n / 2) continue;  // mirror of a left-half row 1
+
+                int cols = bit0 | bit1;
+                int ld = ((bit0 << 1) | bit1) << 1;
+                int rd = ((bit0 >>> 1) | bit1) >>> 1;
+                tasks.add(new PrefixTask(cols, ld, rd, full));
+            }
+        }
+
+        long total = ForkJoinPool.commonPool().invoke(new RecursiveTask<Long>() {
+            protected Long compute() {
+                invokeAll(tasks);
+                long sum = 0;
+                for (PrefixTask t : tasks) sum += t.join();
+                return sum;
+            }
+        });
+        return total * 2;  // every counted solution has a mirror image
+    }
+
+    // One fixed placement of the first two rows
+    static class PrefixTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        final int cols, ld, rd, full;
+
+        PrefixTask(int cols, int ld, int rd, int full) {
+            this.cols = cols;
+            this.ld = ld;
+            this.rd = rd;
+            this.full = full;
+        }
+
+        protected Long compute() {
+            return count(cols, ld, rd, full);
+        }
+    }
+
+    // Number of ways to fill the remaining rows
+    static long count(int cols, int ld, int rd, int full) {
+        if (Metrics.ENABLED) Metrics.Counter.BACKTRACK_NODES.inc();
+        if (cols == full) return 1;  // a queen in every column = every row filled
+
+        long total = 0;
+        int free = full & ~(cols | ld | rd);
+        while (free != 0) {
+            int bit = free & -free;  // place queen on lowest free square
+            free ^= bit;
+            total += count(cols | bit, (ld | bit) << 1, (rd | bit) >>> 1, full);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        Scanner sc = new Scanner(System.in);
+
+        System.out.print("Enter the value of n (number of queens): ");
+        int n = sc.nextInt();
+
+        long start = System.nanoTime();
+        long solutions = countSolutions(n);
+        long end = System.nanoTime();
+        if (Metrics.ENABLED) Metrics.time("NQueensBitmask.countSolutions", end - start);
+
+        System.out.println("Number of solutions: " + solutions);
+        System.out.println("Time taken: " + (end - start) / 1e6 + " milliseconds");
+
+        sc.close();
+    }
+}
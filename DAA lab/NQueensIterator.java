@@ -0,0 +1,142 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+N-Queens solutions produced one at a time instead of printed from inside the recursion.
+
+A solution is an int[n] where queens[row] = column of the queen in that row.
+
+The backtracking uses an explicit stack (one slot per row) instead of recursion:
+free[row] = squares of this row that are still safe and not tried yet
+(same cols / ld / rd bitmasks as NQueensBitmask). Finding the next solution
+just continues from where the previous call stopped, so taking the first k
+solutions only does the work needed for those k.
+
+The spliterator owns a range of columns for the queen in row 0. trySplit gives
+half of that range away, so parallel() streams split the search on the first row.
+ */
+
+public class NQueensIterator implements Spliterator<int[]> {
+
+    final int n, full;
+    int lo, hi;          // columns [lo, hi) allowed for the row 0 queen
+    boolean started = false;
+
+    // explicit backtracking stack, one entry per row
+    final int[] free, cols, ld, rd, queens;
+    int row;
+
+    NQueensIterator(int n, int lo, int hi) {
+        if (n < 1 || n > 31) throw new IllegalArgumentException("n must be 1..31");
+        this.n = n;
+        this.full = (1 << n) - 1;
+        this.lo = lo;
+        this.hi = hi;
+        free = new int[n];
+        cols = new int[n];
+        ld = new int[n];
+        rd = new int[n];
+        queens = new int[n];
+    }
+
+    public static Stream<int[]> solutions(int n, boolean parallel) {
+        return StreamSupport.stream(new NQueensIterator(n, 0, n), parallel);
+    }
+
+    public static Iterator<int[]> iterator(int n) {
+        return Spliterators.iterator(new NQueensIterator(n, 0, n));
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[]> action) {
+        if (!advance()) return false;
+        action.accept(queens.clone());
+        return true;
+    }
+
+    // Moves the stack to the next full placement, false when the range is exhausted
+    boolean advance() {
+        if (!started) {
+            started = true;
+            row = 0;
+            free[0] = full & ((1 << hi) - 1) & ~((1 << lo) - 1);  // only columns lo..hi-1
+        }
+
+        while (row >= 0) {
+            if (free[row] == 0) {
+                row--;  // nothing left in this row: backtrack
+                continue;
+            }
+            int bit = free[row] & -free[row];  // lowest untried safe square
+            free[row] ^= bit;
+            queens[row] = Integer.numberOfTrailingZeros(bit);
+
+            if (row == n - 1) {
+                return true;  // stay on this row, the next call tries its other squares
+            }
+
+            // push the next row
+            cols[row + 1] = cols[row] | bit;
+            ld[row + 1] = (ld[row] | bit) << 1;
+            rd[row + 1] = (rd[row] | bit) >>> 1;
+            row++;
+            free[row] = full & ~(cols[row] | ld[row] | rd[row]);
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<int[]> trySplit() {
+        if (started || hi - lo < 2) return null;
+        int mid = (lo + hi) >>> 1;
+        NQueensIterator prefix = new NQueensIterator(n, lo, mid);
+        lo = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;  // unknown
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    static void printBoard(int[] queens) {
+        System.out.println("Solution:");
+        for (int col : queens) {
+            char[] line = new char[queens.length];
+            Arrays.fill(line, '.');
+            line[col] = 'Q';
+            System.out.println(line);
+        }
+        System.out.println();
+    }
+
+    public static void main(String[] args) {
+        Scanner sc = new Scanner(System.in);
+
+        System.out.print("Enter the value of n (number of queens): ");
+        int n = sc.nextInt();
+
+        System.out.print("How many solutions to show: ");
+        int k = sc.nextInt();
+
+        solutions(n, false).limit(k).forEach(NQueensIterator::printBoard);
+
+        long start = System.nanoTime();
+        long total = solutions(n, true).count();
+        long end = System.nanoTime();
+        System.out.println("Total solutions: " + total + " (" + (end - start) / 1e6 + " ms)");
+
+        sc.close();
+    }
+}
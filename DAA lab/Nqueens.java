@@ -3,6 +3,7 @@ import java.util.Scanner;
 class NQueens {
 
     static void solveNQueens(char[][] board, int row, int n) {
+        if (Metrics.ENABLED) Metrics.Counter.BACKTRACK_NODES.inc();
         if (row == n) {
             printBoard(board, n);
             return;
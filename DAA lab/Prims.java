@@ -2,9 +2,20 @@ import java.util.*;
 
 public class Prims {
 
-    int[] d = new int[10];
-    int[] p = new int[10];
-    int[] visited = new int[10];
+    int[] d;
+    int[] p;
+    int[] visited;
+
+    Prims() {
+        this(10);
+    }
+
+    // arrays sized for graphs with up to n vertices
+    Prims(int n) {
+        d = new int[n];
+        p = new int[n];
+        visited = new int[n];
+    }
 
     // Prim's algorithm
     public void prim(int[][] a, int n, int s) {
@@ -35,6 +46,7 @@ public class Prims {
             // Update key and parent for adjacent vertices
             for (v = 0; v < n; v++) {
                 if ((a[u][v] != 0) && (visited[v] == 0) && (a[u][v] < d[v])) {
+                    if (Metrics.ENABLED) Metrics.Counter.RELAXATIONS.inc();
                     d[v] = a[u][v];
                     p[v] = u;
                 }
@@ -54,23 +66,31 @@ public class Prims {
         }
     }
 
-    public static void main(String[] args) {
-        int[][] graph = new int[10][10];
+    public static void main(String[] args) throws java.io.IOException {
+        int[][] graph;
         int n, start;
         Scanner sc = new Scanner(System.in);
 
-        System.out.println("Enter the number of vertices:");
-        n = sc.nextInt();
-
-        System.out.println("Enter the weighted adjacency matrix:");
-        for (int i = 0; i < n; i++)
-            for (int j = 0; j < n; j++)
-                graph[i][j] = sc.nextInt();
+        if (args.length > 0) {
+            // weighted edge list or binary CSR file (see GraphIO), each edge used both ways.
+            // 0 means no edge and 99 infinity here, so weights must be 1..98
+            graph = GraphIO.loadMatrix(args[0], 0, 98, true, true);
+            n = graph.length;
+        } else {
+            graph = new int[10][10];
+            System.out.println("Enter the number of vertices:");
+            n = sc.nextInt();
+
+            System.out.println("Enter the weighted adjacency matrix:");
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    graph[i][j] = sc.nextInt();
+        }
 
         System.out.println("Enter the starting vertex (0-indexed):");
         start = sc.nextInt();
 
-        Prims obj = new Prims();
+        Prims obj = new Prims(n);
         obj.prim(graph, n, start);
 
         System.out.println("Minimum Spanning Tree:");
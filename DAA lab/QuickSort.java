@@ -6,7 +6,9 @@ public class QuickSort {
         int idx = -1, j = 0;
 
         for(j = 0; j < end; j++){
+            if (Metrics.ENABLED) Metrics.Counter.COMPARISONS.inc();
             if(arr[j] < arr[end]){
+                if (Metrics.ENABLED) Metrics.Counter.SWAPS.inc();
                 ++idx;
                 int temp = arr[j];
                 arr[j] = arr[idx];
@@ -16,6 +18,7 @@ public class QuickSort {
         }
 
         idx++;
+        if (Metrics.ENABLED) Metrics.Counter.SWAPS.inc();
         int temp = arr[end];
         arr[end] = arr[idx];
         arr[idx] = temp;
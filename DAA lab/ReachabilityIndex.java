@@ -0,0 +1,383 @@
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+
+/*
+"Can u reach v?" index for big sparse graphs, instead of Warshall's dense V x V closure.
+
+1. Strongly connected components (iterative Tarjan). Every vertex in an SCC reaches
+   every other, so each SCC is squeezed into one node -> a DAG (the condensation).
+   Tarjan finishes components sinks-first, so an edge a -> b between components
+   always has id(b) < id(a).
+
+2. Interval labels over the DAG (tree cover, Agrawal et al.):
+   - a DFS spanning forest numbers every node in post-order; a tree subtree is then
+     the interval [low, post] (low = smallest post number inside it)
+   - label(c) = own interval + labels of all DAG successors, merged and with
+     contained intervals dropped. Successors have smaller ids, so going through
+     components in id order has them ready.
+   u reaches v  <=>  post(comp v) lies in one of the intervals of comp u
+   -> a binary search over a few intervals, near constant time.
+
+Size is O(V + E + total intervals) - on sparse graphs most of a node's reach is covered
+by its own tree interval, so labels stay short (worst case is still quadratic).
+
+The index is saved to / loaded from a file so a restart doesn't rebuild it.
+ */
+
+public class ReachabilityIndex {
+
+    final int n;
+    final int[] comp;        // vertex -> component id
+    final int[] post;        // component -> post-order number in the spanning forest
+    final int[] labelOffset; // component c's intervals are [labelOffset[c], labelOffset[c+1])
+    final int[] labelLow, labelHigh;
+
+    ReachabilityIndex(int n, int[] comp, int[] post, int[] labelOffset, int[] labelLow, int[] labelHigh) {
+        this.n = n;
+        this.comp = comp;
+        this.post = post;
+        this.labelOffset = labelOffset;
+        this.labelLow = labelLow;
+        this.labelHigh = labelHigh;
+    }
+
+    boolean reaches(int u, int v) {
+        int cu = comp[u], cv = comp[v];
+        if (cu == cv) return true;
+        int p = post[cv];
+
+        // last interval starting at or before p
+        int lo = labelOffset[cu], hi = labelOffset[cu + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (labelLow[mid] <= p) lo = mid + 1;
+            else hi = mid - 1;
+        }
+        return hi >= labelOffset[cu] && labelHigh[hi] >= p;
+    }
+
+    int componentCount() {
+        return post.length;
+    }
+
+    int labelCount() {
+        return labelLow.length;
+    }
+
+    // ---------------- build ----------------
+
+    static ReachabilityIndex build(CSRGraph g) {
+        int n = g.n;
+        int[] comp = new int[n];
+        int compCount = tarjan(g, comp);
+        CSRGraph dag = condense(g, comp, compCount);
+        int[] post = new int[compCount], low = new int[compCount];
+        spanningForest(dag, post, low);
+
+        // labels, built in component id order (successors first)
+        int[] offset = new int[compCount + 1];
+        int[] lows = new int[Math.max(16, compCount)], highs = new int[lows.length];
+        int size = 0;
+        long[] scratch = new long[16];
+
+        for (int c = 0; c < compCount; c++) {
+            int count = 0;
+            scratch[count++] = (long) low[c] << 32 | post[c];
+            for (int e = dag.offsets[c]; e < dag.offsets[c + 1]; e++) {
+                int s = dag.targets[e];
+                for (int k = offset[s]; k < offset[s + 1]; k++) {
+                    if (count == scratch.length) scratch = Arrays.copyOf(scratch, count * 2);
+                    scratch[count++] = (long) lows[k] << 32 | highs[k];
+                }
+            }
+
+            // sort by start, then merge overlapping / touching intervals
+            Arrays.sort(scratch, 0, count);
+            offset[c] = size;
+            int curLow = (int) (scratch[0] >>> 32), curHigh = (int) scratch[0];
+            for (int k = 1; k <= count; k++) {
+                int l = k < count ? (int) (scratch[k] >>> 32) : Integer.MAX_VALUE;
+                int h = k < count ? (int) scratch[k] : 0;
+                if (k < count && l <= curHigh + 1) {
+                    curHigh = Math.max(curHigh, h);
+                } else {
+                    if (size == lows.length) {
+                        lows = Arrays.copyOf(lows, size * 2);
+                        highs = Arrays.copyOf(highs, size * 2);
+                    }
+                    lows[size] = curLow;
+                    highs[size] = curHigh;
+                    size++;
+                    curLow = l;
+                    curHigh = h;
+                }
+            }
+            offset[c + 1] = size;
+        }
+        return new ReachabilityIndex(n, comp, post, offset, Arrays.copyOf(lows, size), Arrays.copyOf(highs, size));
+    }
+
+    // Iterative Tarjan: fills comp[], returns the number of components
+    static int tarjan(CSRGraph g, int[] comp) {
+        int n = g.n;
+        int[] index = new int[n], lowlink = new int[n];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[n];
+        int[] sccStack = new int[n];
+        int sccTop = 0;
+        int[] callStack = new int[n];   // DFS path (replaces recursion)
+        int[] edgePos = new int[n];     // next edge to look at for each vertex on the path
+        int counter = 0, compCount = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) continue;
+            int top = 0;
+            callStack[top++] = root;
+            index[root] = lowlink[root] = counter++;
+            edgePos[root] = g.offsets[root];
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+
+            while (top > 0) {
+                int u = callStack[top - 1];
+                if (edgePos[u] < g.offsets[u + 1]) {
+                    int v = g.targets[edgePos[u]++];
+                    if (index[v] == -1) {
+                        // "recursive call" on v
+                        index[v] = lowlink[v] = counter++;
+                        edgePos[v] = g.offsets[v];
+                        sccStack[sccTop++] = v;
+                        onStack[v] = true;
+                        callStack[top++] = v;
+                    } else if (onStack[v]) {
+                        lowlink[u] = Math.min(lowlink[u], index[v]);
+                    }
+                } else {
+                    // u is done: "return" to its caller
+                    top--;
+                    if (lowlink[u] == index[u]) {
+                        int w;
+                        do {
+                            w = sccStack[--sccTop];
+                            onStack[w] = false;
+                            comp[w] = compCount;
+                        } while (w != u);
+                        compCount++;
+                    }
+                    if (top > 0) {
+                        int parent = callStack[top - 1];
+                        lowlink[parent] = Math.min(lowlink[parent], lowlink[u]);
+                    }
+                }
+            }
+        }
+        return compCount;
+    }
+
+    // DAG of components, duplicate edges removed
+    static CSRGraph condense(CSRGraph g, int[] comp, int compCount) {
+        int m = 0;
+        int[] src = new int[g.edgeCount()], dst = new int[g.edgeCount()];
+        for (int u = 0; u < g.n; u++) {
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int a = comp[u], b = comp[g.targets[e]];
+                if (a != b) {
+                    src[m] = a;
+                    dst[m] = b;
+                    m++;
+                }
+            }
+        }
+        CSRGraph raw = CSRGraph.fromEdges(compCount, src, dst, null, m);
+
+        // sort each row and drop repeats
+        int[] offsets = new int[compCount + 1];
+        int[] targets = new int[m];
+        int pos = 0;
+        for (int c = 0; c < compCount; c++) {
+            int from = raw.offsets[c], to = raw.offsets[c + 1];
+            Arrays.sort(raw.targets, from, to);
+            for (int e = from; e < to; e++) {
+                if (e == from || raw.targets[e] != raw.targets[e - 1]) targets[pos++] = raw.targets[e];
+            }
+            offsets[c + 1] = pos;
+        }
+        return new CSRGraph(compCount, offsets, Arrays.copyOf(targets, pos), null);
+    }
+
+    // Iterative DFS forest over the DAG: post-order numbers and subtree minimum
+    static void spanningForest(CSRGraph dag, int[] post, int[] low) {
+        int n = dag.n;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n], edgePos = new int[n];
+        int counter = 0;
+
+        // start from the highest ids: those are sources (no component edge points to a higher id)
+        for (int root = n - 1; root >= 0; root--) {
+            if (visited[root]) continue;
+            int top = 0;
+            stack[top++] = root;
+            visited[root] = true;
+            edgePos[root] = dag.offsets[root];
+            low[root] = Integer.MAX_VALUE;
+
+            while (top > 0) {
+                int u = stack[top - 1];
+                if (edgePos[u] < dag.offsets[u + 1]) {
+                    int v = dag.targets[edgePos[u]++];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        edgePos[v] = dag.offsets[v];
+                        low[v] = Integer.MAX_VALUE;
+                        stack[top++] = v;
+                    }
+                } else {
+                    top--;
+                    post[u] = counter++;
+                    low[u] = Math.min(low[u], post[u]);
+                    if (top > 0) {
+                        int parent = stack[top - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                }
+            }
+        }
+    }
+
+    // ---------------- file format ----------------
+
+    static final int MAGIC = 0x52494458;  // "RIDX"
+
+    void save(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            writeArray(out, comp);
+            writeArray(out, post);
+            writeArray(out, labelOffset);
+            writeArray(out, labelLow);
+            writeArray(out, labelHigh);
+        }
+    }
+
+    static ReachabilityIndex load(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a reachability index file: " + path);
+            int[] comp = readArray(in);
+            int[] post = readArray(in);
+            int[] labelOffset = readArray(in);
+            int[] labelLow = readArray(in);
+            int[] labelHigh = readArray(in);
+            return new ReachabilityIndex(comp.length, comp, post, labelOffset, labelLow, labelHigh);
+        }
+    }
+
+    static void writeArray(DataOutputStream out, int[] a) throws IOException {
+        out.writeInt(a.length);
+        for (int x : a) out.writeInt(x);
+    }
+
+    static int[] readArray(DataInputStream in) throws IOException {
+        int[] a = new int[in.readInt()];
+        for (int i = 0; i < a.length; i++) a[i] = in.readInt();
+        return a;
+    }
+
+    // ---------------- demo ----------------
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].matches("\\d+")) {
+            benchmark(Integer.parseInt(args[0]), args.length > 1 ? args[1] : "reach.idx");
+            return;
+        }
+        if (args.length > 0) {
+            runFile(args[0], args.length > 1 ? args[1] : null);
+            return;
+        }
+
+        Scanner sc = new Scanner(System.in);
+        System.out.print("Enter the number of vert: ");
+        int vert = sc.nextInt();
+        int[][] graph = new int[vert][vert];
+
+        System.out.println("Enter the adjacency matrix (0 for no edge, 1 for edge):");
+        for (int i = 0; i < vert; i++) {
+            for (int j = 0; j < vert; j++) {
+                graph[i][j] = sc.nextInt();
+            }
+        }
+
+        ReachabilityIndex idx = build(CSRGraph.fromMatrix(graph, vert, 0));
+        // same output as Warshall, but a node always reaches itself here
+        System.out.println("Reachability:");
+        for (int i = 0; i < vert; i++) {
+            for (int j = 0; j < vert; j++) {
+                System.out.print((idx.reaches(i, j) ? 1 : 0) + " ");
+            }
+            System.out.println();
+        }
+        sc.close();
+    }
+
+    // java ReachabilityIndex <graph> [index file]: edge list or binary CSR file (see GraphIO).
+    // Builds (and saves) the index, then answers "u v" lines from stdin with 1 or 0.
+    // The interval count depends on the graph: road / dependency like graphs stay near n,
+    // a random DAG without locality can need far more (200k vertices x 5 edges won't fit in 1.5GB).
+    static void runFile(String file, String indexFile) throws IOException {
+        long start = System.nanoTime();
+        CSRGraph g = GraphIO.load(file);
+        System.err.printf("Loaded %d vertices, %d edges in %.1f ms%n", g.n, g.edgeCount(), (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        ReachabilityIndex idx = build(g);
+        System.err.printf("Built in %.1f ms: %d components, %d intervals%n",
+                (System.nanoTime() - start) / 1e6, idx.componentCount(), idx.labelCount());
+        if (indexFile != null) idx.save(indexFile);
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        PrintWriter out = new PrintWriter(new BufferedOutputStream(System.out, 1 << 16));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts.length != 2) continue;
+            int u = Integer.parseInt(parts[0]), v = Integer.parseInt(parts[1]);
+            if (u < 0 || u >= g.n || v < 0 || v >= g.n) out.println("error: vertex out of range 0.." + (g.n - 1));
+            else out.println(idx.reaches(u, v) ? 1 : 0);
+        }
+        out.flush();
+    }
+
+    // Random sparse graph: build, save, load, answer a few million queries
+    static void benchmark(int n, String file) throws IOException {
+        Random r = new Random(3);
+        int m = 3 * n;
+        int[] src = new int[m], dst = new int[m];
+        for (int e = 0; e < m; e++) {
+            // mostly forward edges so the graph has long paths and some cycles
+            src[e] = r.nextInt(n);
+            dst[e] = r.nextInt(10) == 0 ? r.nextInt(n) : Math.min(n - 1, src[e] + 1 + r.nextInt(100));
+        }
+        CSRGraph g = CSRGraph.fromEdges(n, src, dst, null, m);
+
+        long start = System.nanoTime();
+        ReachabilityIndex idx = build(g);
+        System.out.println("Built in " + (System.nanoTime() - start) / 1e6 + " ms: " + idx.componentCount()
+                + " components, " + idx.labelCount() + " intervals");
+
+        idx.save(file);
+        start = System.nanoTime();
+        ReachabilityIndex loaded = load(file);
+        System.out.println("Loaded in " + (System.nanoTime() - start) / 1e6 + " ms");
+
+        int queries = 5_000_000;
+        int yes = 0;
+        start = System.nanoTime();
+        for (int q = 0; q < queries; q++) {
+            if (loaded.reaches(r.nextInt(n), r.nextInt(n))) yes++;
+        }
+        long t = System.nanoTime() - start;
+        System.out.println(queries + " queries in " + t / 1e6 + " ms (" + (double) t / queries + " ns each), "
+                + yes + " reachable");
+    }
+}
@@ -0,0 +1,445 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Answers many shortest path / BFS queries at the same time on one loaded graph.
+
+Dijkstra keeps d, p and visited in fields, so one object can only run one query.
+Here the graph (CSRGraph) is never written after loading, so any number of
+threads can read it, and everything a query writes lives in a Workspace:
+    dist[], parent[]  - per vertex
+    seen[] + epoch    - dist[v] is only valid if seen[v] == epoch, so starting a
+                        new query is epoch++ instead of clearing the arrays
+    heap              - binary min-heap of (distance, vertex) in primitive arrays,
+                        with lazy deletion (stale entries are skipped when popped)
+    queue             - int[] FIFO for BFS
+
+Queries run on virtual threads (Java 21). A Semaphore caps how many run at
+once, and finished Workspaces go back into a bounded pool, so there are never
+more than `maxConcurrent` of them however many requests are waiting.
+
+    java ShortestPathService <graph>                 read queries from stdin
+    java ShortestPathService serve <graph> <port>    same protocol over a loopback socket
+    java ShortestPathService load <graph> [queries] [clients] [d|b]
+                                                     load generator: throughput, p50/p99
+
+<graph> is a file GraphIO can read, or a generated one like er:100000:8
+(GraphGen kind:vertices:degree). Query lines are "d s t" (Dijkstra) or "b s t" (BFS),
+answered as "s -> ... -> t = dist" or "s t unreachable".
+
+Dijkstra stops as soon as the target is settled, which is only right when no edge
+weight is negative, so the constructor rejects graphs with negative weights.
+ */
+
+public class ShortestPathService implements AutoCloseable {
+
+    static final long UNREACHABLE = -1;
+
+    final CSRGraph graph;
+    final int maxConcurrent;
+    final Semaphore permits;
+    final ArrayBlockingQueue<Workspace> pool;
+    final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    ShortestPathService(CSRGraph graph, int maxConcurrent) {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        if (graph.weights != null) {
+            for (int u = 0; u < graph.n; u++) {
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    if (graph.weights[e] < 0) {
+                        throw new IllegalArgumentException("Dijkstra needs non-negative weights, edge " + u + " -> "
+                                + graph.targets[e] + " has weight " + graph.weights[e]);
+                    }
+                }
+            }
+        }
+        this.graph = graph;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.pool = new ArrayBlockingQueue<>(maxConcurrent);
+    }
+
+    // A query failed with something other than an IllegalArgumentException / Error
+    static class QueryException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        QueryException(Throwable cause) {
+            super("Query failed: " + cause, cause);
+        }
+    }
+
+    static class Query {
+        final boolean bfs;
+        final int source, target;
+
+        Query(boolean bfs, int source, int target) {
+            this.bfs = bfs;
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    static class Result {
+        final Query query;
+        final long distance;   // UNREACHABLE if there is no path
+        final int[] path;      // source .. target, empty if unreachable
+
+        Result(Query query, long distance, int[] path) {
+            this.query = query;
+            this.distance = distance;
+            this.path = path;
+        }
+
+        public String toString() {
+            if (distance == UNREACHABLE) return query.source + " " + query.target + " unreachable";
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < path.length; i++) sb.append(i == 0 ? "" : " -> ").append(path[i]);
+            return sb.append(" = ").append(distance).toString();
+        }
+    }
+
+    // Scratch space for one query at a time
+    static class Workspace {
+        final long[] dist;
+        final int[] parent, seen, queue;
+        int epoch = 0;
+        long[] heapKey = new long[64];
+        int[] heapNode = new int[64];
+        int heapSize;
+
+        Workspace(int n) {
+            dist = new long[n];
+            parent = new int[n];
+            seen = new int[n];
+            queue = new int[n];
+        }
+
+        void begin() {
+            if (++epoch == Integer.MAX_VALUE) {  // wrapped: clear once and start over
+                Arrays.fill(seen, 0);
+                epoch = 1;
+            }
+            heapSize = 0;
+        }
+
+        boolean reached(int v) {
+            return seen[v] == epoch;
+        }
+
+        void reach(int v, long d, int from) {
+            seen[v] = epoch;
+            dist[v] = d;
+            parent[v] = from;
+        }
+
+        void push(long key, int v) {
+            if (heapSize == heapKey.length) {
+                heapKey = Arrays.copyOf(heapKey, heapSize * 2);
+                heapNode = Arrays.copyOf(heapNode, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (heapKey[up] <= key) break;
+                heapKey[i] = heapKey[up];
+                heapNode[i] = heapNode[up];
+                i = up;
+            }
+            heapKey[i] = key;
+            heapNode[i] = v;
+        }
+
+        // removes the root; read heapKey[0] / heapNode[0] before calling
+        void pop() {
+            long key = heapKey[--heapSize];
+            int v = heapNode[heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child]) child++;
+                if (heapKey[child] >= key) break;
+                heapKey[i] = heapKey[child];
+                heapNode[i] = heapNode[child];
+                i = child;
+            }
+            heapKey[i] = key;
+            heapNode[i] = v;
+        }
+
+        int[] path(int source, int target) {
+            int len = 1;
+            for (int v = target; v != source; v = parent[v]) len++;
+            int[] p = new int[len];
+            for (int v = target, i = len - 1; i >= 0; v = parent[v], i--) p[i] = v;
+            return p;
+        }
+    }
+
+    // ---------------- single queries (run on the caller's thread) ----------------
+
+    void check(Query q) {
+        if (q.source < 0 || q.source >= graph.n || q.target < 0 || q.target >= graph.n) {
+            throw new IllegalArgumentException("Vertex out of range 0.." + (graph.n - 1));
+        }
+    }
+
+    Result query(Query q) throws InterruptedException {
+        check(q);
+        permits.acquire();
+        Workspace w = pool.poll();
+        if (w == null) w = new Workspace(graph.n);
+        try {
+            return q.bfs ? bfs(w, q) : dijkstra(w, q);
+        } finally {
+            pool.offer(w);
+            permits.release();
+        }
+    }
+
+    // Dijkstra with a binary heap, stops as soon as the target is settled
+    Result dijkstra(Workspace w, Query q) {
+        CSRGraph g = graph;
+        w.begin();
+        w.reach(q.source, 0, -1);
+        w.push(0, q.source);
+        while (w.heapSize > 0) {
+            long d = w.heapKey[0];
+            int u = w.heapNode[0];
+            w.pop();
+            if (d > w.dist[u]) continue;  // stale entry
+            if (u == q.target) return new Result(q, d, w.path(q.source, u));
+            if (Metrics.ENABLED) Metrics.Counter.HEAP_OPS.inc();
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e];
+                long nd = d + (g.weights == null ? 1 : g.weights[e]);
+                if (!w.reached(v) || nd < w.dist[v]) {
+                    if (Metrics.ENABLED) Metrics.Counter.RELAXATIONS.inc();
+                    w.reach(v, nd, u);
+                    w.push(nd, v);
+                }
+            }
+        }
+        return new Result(q, UNREACHABLE, new int[0]);
+    }
+
+    // Hop count BFS, stops when the target is discovered
+    Result bfs(Workspace w, Query q) {
+        CSRGraph g = graph;
+        w.begin();
+        w.reach(q.source, 0, -1);
+        if (q.source == q.target) return new Result(q, 0, new int[]{q.source});
+        int head = 0, tail = 0;
+        w.queue[tail++] = q.source;
+        while (head < tail) {
+            int u = w.queue[head++];
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e];
+                if (w.reached(v)) continue;
+                w.reach(v, w.dist[u] + 1, u);
+                if (v == q.target) return new Result(q, w.dist[v], w.path(q.source, v));
+                w.queue[tail++] = v;
+            }
+        }
+        return new Result(q, UNREACHABLE, new int[0]);
+    }
+
+    // ---------------- batches (one virtual thread per query) ----------------
+
+    List<Result> batch(List<Query> queries) throws InterruptedException {
+        List<Future<Result>> futures = new ArrayList<>(queries.size());
+        for (Query q : queries) futures.add(executor.submit(() -> query(q)));
+
+        List<Result> results = new ArrayList<>(queries.size());
+        for (Future<Result> f : futures) {
+            results.add(await(f, futures));
+        }
+        return results;
+    }
+
+    // f.get(), but if it fails or we are interrupted the other futures are cancelled,
+    // the interrupt flag is kept, and the task's own exception is rethrown
+    static <T> T await(Future<T> f, List<? extends Future<?>> all) throws InterruptedException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            for (Future<?> other : all) other.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            for (Future<?> other : all) other.cancel(true);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new QueryException(cause);
+        }
+    }
+
+    public void close() {
+        executor.close();
+    }
+
+    // ---------------- front ends ----------------
+
+    // "d s t" or "b s t"
+    static Query parse(String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (parts.length != 3 || !(parts[0].equals("d") || parts[0].equals("b"))) {
+            throw new IllegalArgumentException("Expected 'd s t' or 'b s t', got: " + line);
+        }
+        return new Query(parts[0].equals("b"), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    }
+
+    // stdin: lines are collected into batches of up to 1024 and answered in order
+    void serveStdin() throws IOException, InterruptedException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        PrintWriter out = new PrintWriter(System.out);
+        List<Query> pending = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) continue;
+            try {
+                Query q = parse(line);
+                check(q);
+                pending.add(q);
+            } catch (IllegalArgumentException e) {
+                answer(pending, out);  // keep the answers in input order
+                out.println("error: " + e.getMessage());
+            }
+            // answer when the batch is full or nothing more is waiting (interactive use)
+            if (pending.size() == 1024 || !in.ready()) answer(pending, out);
+        }
+        answer(pending, out);
+    }
+
+    void answer(List<Query> pending, PrintWriter out) throws InterruptedException {
+        for (Result r : batch(pending)) out.println(r);
+        pending.clear();
+        out.flush();
+    }
+
+    // loopback socket: one virtual thread per connection, one answer line per query line
+    void serveSocket(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress())) {
+            System.out.println("Listening on " + server.getLocalSocketAddress());
+            while (true) {
+                Socket client = server.accept();
+                executor.submit(() -> handle(client));
+            }
+        }
+    }
+
+    void handle(Socket client) {
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+             PrintWriter out = new PrintWriter(client.getOutputStream(), true)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.equals("quit")) break;
+                if (line.isBlank()) continue;
+                try {
+                    out.println(query(parse(line)));
+                } catch (IllegalArgumentException e) {
+                    out.println("error: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();  // shutting down: let the executor see it
+        }
+    }
+
+    // ---------------- load generator ----------------
+
+    // `clients` virtual threads share `total` random queries, each one timed
+    void loadTest(int total, int clients, boolean bfs, boolean report) throws InterruptedException {
+        if (total <= 0) throw new IllegalArgumentException("Query count must be positive: " + total);
+        if (clients <= 0) throw new IllegalArgumentException("Client count must be positive: " + clients);
+        if (graph.n == 0) throw new IllegalArgumentException("Graph has no vertices to query");
+        long[] latency = new long[total];
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> running = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            final long seed = c;
+            running.add(executor.submit(() -> {
+                SplittableRandom r = new SplittableRandom(seed);
+                int i;
+                while ((i = next.getAndIncrement()) < total) {
+                    Query q = new Query(bfs, r.nextInt(graph.n), r.nextInt(graph.n));
+                    long t0 = System.nanoTime();
+                    query(q);
+                    latency[i] = System.nanoTime() - t0;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : running) {
+            await(f, running);
+        }
+        long wall = System.nanoTime() - start;
+        if (!report) return;
+
+        Arrays.sort(latency);
+        System.out.printf("%d %s queries, %d clients, %d running at once%n", total, bfs ? "BFS" : "Dijkstra", clients, maxConcurrent);
+        System.out.printf("Throughput: %.0f queries/s%n", total / (wall / 1e9));
+        System.out.printf("Latency: p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                latency[total / 2] / 1e6, latency[(int) Math.min(total - 1, (long) total * 99 / 100)] / 1e6,
+                latency[total - 1] / 1e6);
+    }
+
+    // a GraphIO file, or kind:vertices:degree for a GraphGen graph
+    static CSRGraph loadGraph(String spec) throws IOException {
+        String[] parts = spec.split(":");
+        if (parts.length == 3 && Arrays.asList("er", "rmat", "grid", "dag").contains(parts[0])) {
+            return GraphGen.generate(parts[0], Integer.parseInt(parts[1]), Double.parseDouble(parts[2]), 42).csr();
+        }
+        return GraphIO.load(spec);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        if (args.length >= 2 && args[0].equals("serve")) {
+            try (ShortestPathService s = new ShortestPathService(loadGraph(args[1]), 4 * cores)) {
+                s.serveSocket(args.length > 2 ? Integer.parseInt(args[2]) : 7070);
+            }
+        } else if (args.length >= 2 && args[0].equals("load")) {
+            CSRGraph g = loadGraph(args[1]);
+            int total = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+            int clients = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+            boolean bfs = args.length > 4 && args[4].equals("b");
+            System.out.println("Graph: " + g.n + " vertices, " + g.edgeCount() + " edges");
+            try (ShortestPathService s = new ShortestPathService(g, cores)) {
+                s.loadTest(Math.min(total, 1000), clients, bfs, false);  // warm up
+                s.loadTest(total, clients, bfs, true);
+            }
+        } else if (args.length == 1) {
+            try (ShortestPathService s = new ShortestPathService(loadGraph(args[0]), 4 * cores)) {
+                s.serveStdin();
+            }
+        } else {
+            System.out.println("Usage: java ShortestPathService <graph>");
+            System.out.println("       java ShortestPathService serve <graph> [port]");
+            System.out.println("       java ShortestPathService load <graph> [queries] [clients] [d|b]");
+        }
+    }
+}
@@ -27,6 +27,8 @@ public class SubsetSum {
             }
         }
 
+        if (Metrics.ENABLED) Metrics.Counter.DP_CELLS.add((long) n * sum);
+
         // If there's no subset with the target sum
         if (!dp[n][sum]) {
             return false;
@@ -0,0 +1,356 @@
+import java.util.ArrayList;
+import java.util.Scanner;
+
+/*
+Subset sum for huge targets (10^12 and more) with few items (n ~ 40-60).
+The DP table of SubsetSum.find_subset would need n * sum cells, which is impossible here.
+
+Meet in the middle (n up to ~44):
+    split items into two halves, list all 2^(n/2) sums of each half,
+    sort both lists and walk them with two pointers (left ascending, right descending)
+    looking for left + right == target.
+    Half sums are listed in Gray code order, so each next sum is one add/subtract,
+    and sorted with an LSD radix sort on primitive long[] arrays.
+
+Schroeppel-Shamir (bigger n):
+    split into four quarters A, B, C, D (each 2^(n/4) sums, sorted).
+    A+B is produced in ascending order with a min-heap, C+D in descending order
+    with a max-heap, and the same two pointer walk is done on these streams.
+    Only O(2^(n/4)) memory is used.
+
+find_subset picks DP, bitset or one of these from n and sum, by comparing rough
+operation counts (see choose).
+Items are assumed non-negative, same as SubsetSum.
+ */
+
+public class SubsetSumMITM {
+
+    static final int MITM_MAX_ITEMS = 44;              // 2^22 sums per half = ~100MB
+    static final long DP_MAX_CELLS = 50_000_000L;      // boolean table size for SubsetSum
+    static final long BITSET_MAX_SUM = 1L << 31;       // int sums only
+
+    enum Engine { DP, BITSET, MITM, SCHROEPPEL_SHAMIR }
+
+    // Chooses DP, bitset or MITM engine based on n and sum
+    static boolean find_subset(long sum, long[] arr, ArrayList<Long> subset) {
+        int n = arr.length;
+        if (sum < 0) return false;
+
+        Engine engine = choose(n, sum, fitsInt(arr));
+        if (engine == Engine.DP || engine == Engine.BITSET) {
+            int[] small = new int[n];
+            for (int i = 0; i < n; i++) small[i] = (int) arr[i];
+
+            ArrayList<Integer> found = new ArrayList<>();
+            boolean ok = engine == Engine.DP
+                    ? SubsetSum.find_subset((int) sum, small, found)
+                    : BitsetSubsetSum.find_subset((int) sum, small, found, sum > (1 << 24));
+            for (int x : found) subset.add((long) x);
+            return ok;
+        }
+
+        return engine == Engine.MITM
+                ? meetInTheMiddle(sum, arr, subset)
+                : schroeppelShamir(sum, arr, subset);
+    }
+
+    // Rough word-operation counts of each engine:
+    //   bitset -> 2 * n * sum/64 (forward pass + recomputing blocks to backtrack)
+    //             + the words written into the ~2*sqrt(n) checkpoints
+    //   MITM   -> n * 2^(n/2) (listing and radix sorting both halves)
+    //   S-S    -> 4 * n * 2^(n/2) (same walk, but every step goes through a heap)
+    // The small boolean DP wins whenever its table is affordable.
+    static Engine choose(int n, long sum, boolean intItems) {
+        boolean smallInts = intItems && sum < BITSET_MAX_SUM;
+        if (smallInts && (n + 1) * (sum + 1) <= DP_MAX_CELLS) return Engine.DP;
+
+        Engine enumerate = n <= MITM_MAX_ITEMS ? Engine.MITM : Engine.SCHROEPPEL_SHAMIR;
+        if (!smallInts) return enumerate;
+
+        double words = sum / 64.0 + 1;
+        int step = Math.max(1, (int) Math.sqrt(n));
+        double bitsetCost = 2.0 * n * words + words * ((n + step - 1) / step + step + 2);
+        double enumerateCost = (enumerate == Engine.MITM ? 1 : 4) * n * Math.pow(2, n / 2.0);
+        return bitsetCost <= enumerateCost ? Engine.BITSET : enumerate;
+    }
+
+    static boolean fitsInt(long[] arr) {
+        for (long x : arr) {
+            if (x < 0 || x > Integer.MAX_VALUE) return false;
+        }
+        return true;
+    }
+
+    // ---------------- Meet in the middle ----------------
+
+    static boolean meetInTheMiddle(long sum, long[] arr, ArrayList<Long> subset) {
+        int n = arr.length;
+        int h = n / 2;
+
+        HalfSums left = HalfSums.of(arr, 0, h);
+        HalfSums right = HalfSums.of(arr, h, n);
+
+        // two pointers: i goes up the left list, j comes down the right list
+        int i = 0, j = right.size() - 1;
+        while (i < left.size() && j >= 0) {
+            long s = left.sums[i] + right.sums[j];
+            if (s == sum) {
+                addItems(arr, 0, left.masks[i], subset);
+                addItems(arr, h, right.masks[j], subset);
+                return true;
+            } else if (s < sum) {
+                i++;
+            } else {
+                j--;
+            }
+        }
+        return false;
+    }
+
+    // ---------------- Schroeppel-Shamir ----------------
+
+    static boolean schroeppelShamir(long sum, long[] arr, ArrayList<Long> subset) {
+        int n = arr.length;
+        int q1 = n / 4, q2 = n / 2, q3 = q2 + (n - q2) / 2;
+
+        HalfSums a = HalfSums.of(arr, 0, q1);
+        HalfSums b = HalfSums.of(arr, q1, q2);
+        HalfSums c = HalfSums.of(arr, q2, q3);
+        HalfSums d = HalfSums.of(arr, q3, n);
+
+        PairHeap low = new PairHeap(a, b, false);  // A+B, smallest first
+        PairHeap high = new PairHeap(c, d, true);  // C+D, largest first
+
+        while (!low.isEmpty() && !high.isEmpty()) {
+            long s = low.top() + high.top();
+            if (s == sum) {
+                addItems(arr, 0, a.masks[low.topI()], subset);
+                addItems(arr, q1, b.masks[low.topJ()], subset);
+                addItems(arr, q2, c.masks[high.topI()], subset);
+                addItems(arr, q3, d.masks[high.topJ()], subset);
+                return true;
+            } else if (s < sum) {
+                low.next();
+            } else {
+                high.next();
+            }
+        }
+        return false;
+    }
+
+    // Streams x[i] + y[j] in sorted order. Heap holds one (i, j) pair per i,
+    // stored in primitive arrays, keyed by the pair sum.
+    static class PairHeap {
+        final HalfSums x, y;
+        final boolean descending;
+        final int[] hi, hj;
+        int size;
+
+        PairHeap(HalfSums x, HalfSums y, boolean descending) {
+            this.x = x;
+            this.y = y;
+            this.descending = descending;
+            hi = new int[x.size()];
+            hj = new int[x.size()];
+            int start = descending ? y.size() - 1 : 0;
+            for (int i = 0; i < x.size(); i++) {
+                hi[size] = i;
+                hj[size] = start;
+                size++;
+            }
+            for (int k = size / 2 - 1; k >= 0; k--) siftDown(k);
+        }
+
+        boolean isEmpty() { return size == 0; }
+        long top() { return key(0); }
+        int topI() { return hi[0]; }
+        int topJ() { return hj[0]; }
+
+        // replace the top pair (i, j) with (i, j+1) or (i, j-1)
+        void next() {
+            int j = hj[0] + (descending ? -1 : 1);
+            if (j < 0 || j >= y.size()) {
+                size--;
+                hi[0] = hi[size];
+                hj[0] = hj[size];
+            } else {
+                hj[0] = j;
+            }
+            if (size > 0) siftDown(0);
+        }
+
+        long key(int k) {
+            return x.sums[hi[k]] + y.sums[hj[k]];
+        }
+
+        // true if heap slot p should be above slot c
+        boolean before(int p, int c) {
+            return descending ? key(p) >= key(c) : key(p) <= key(c);
+        }
+
+        void siftDown(int k) {
+            while (true) {
+                int child = 2 * k + 1;
+                if (child >= size) return;
+                if (child + 1 < size && before(child + 1, child)) child++;
+                if (before(k, child)) return;
+                int ti = hi[k], tj = hj[k];
+                hi[k] = hi[child]; hj[k] = hj[child];
+                hi[child] = ti; hj[child] = tj;
+                k = child;
+            }
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    // All subset sums of arr[from..to), sorted, with the mask that made each sum
+    static class HalfSums {
+        long[] sums;
+        int[] masks;
+
+        int size() { return sums.length; }
+
+        static HalfSums of(long[] arr, int from, int to) {
+            int m = to - from;
+            int count = 1 << m;
+            HalfSums hs = new HalfSums();
+            hs.sums = new long[count];
+            hs.masks = new int[count];
+
+            // Gray code order: each step flips exactly one item in or out
+            long s = 0;
+            int mask = 0;
+            for (int i = 1; i < count; i++) {
+                int bit = Integer.numberOfTrailingZeros(i);
+                mask ^= 1 << bit;
+                s += (mask & (1 << bit)) != 0 ? arr[from + bit] : -arr[from + bit];
+                hs.sums[i] = s;
+                hs.masks[i] = mask;
+            }
+
+            radixSort(hs.sums, hs.masks);
+            return hs;
+        }
+    }
+
+    // LSD radix sort on 16 bit digits, masks are moved together with their sums
+    static void radixSort(long[] keys, int[] vals) {
+        int n = keys.length;
+        long[] k2 = new long[n];
+        int[] v2 = new int[n];
+        int[] count = new int[1 << 16];
+
+        for (int shift = 0; shift < 64; shift += 16) {
+            java.util.Arrays.fill(count, 0);
+            boolean top = shift == 48;
+            for (long k : keys) count[digit(k, shift, top)]++;
+
+            // skip the pass if all keys share this digit
+            if (count[digit(keys[0], shift, top)] == n) continue;
+
+            int total = 0;
+            for (int d = 0; d < count.length; d++) {
+                int c = count[d];
+                count[d] = total;
+                total += c;
+            }
+            for (int i = 0; i < n; i++) {
+                int pos = count[digit(keys[i], shift, top)]++;
+                k2[pos] = keys[i];
+                v2[pos] = vals[i];
+            }
+            System.arraycopy(k2, 0, keys, 0, n);
+            System.arraycopy(v2, 0, vals, 0, n);
+        }
+    }
+
+    // top digit has its sign bit flipped so negative sums sort first
+    static int digit(long k, int shift, boolean top) {
+        int d = (int) (k >>> shift) & 0xFFFF;
+        return top ? d ^ 0x8000 : d;
+    }
+
+    static void addItems(long[] arr, int from, int mask, ArrayList<Long> subset) {
+        while (mask != 0) {
+            int bit = Integer.numberOfTrailingZeros(mask);
+            subset.add(arr[from + bit]);
+            mask &= mask - 1;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("check")) {
+            check();
+            return;
+        }
+
+        Scanner sc = new Scanner(System.in);
+
+        System.out.println("Enter the number of elements: ");
+        int n = sc.nextInt();
+
+        long[] arr = new long[n];
+
+        System.out.println("Enter the elements: ");
+        for (int i = 0; i < n; i++) {
+            arr[i] = sc.nextLong();
+        }
+
+        System.out.println("Enter the target sum: ");
+        long sum = sc.nextLong();
+
+        ArrayList<Long> subset = new ArrayList<>();
+
+        long start = System.nanoTime();
+        boolean val = find_subset(sum, arr, subset);
+        long end = System.nanoTime();
+
+        if (!val) {
+            System.out.println("No subset");
+        } else {
+            System.out.println("Subset is found: " + subset);
+        }
+        System.out.println("Time taken: " + (end - start) / 1e6 + " milliseconds");
+    }
+
+    // Pins the engine choice for a few (n, sum) shapes, and checks each engine's
+    // answer on one instance of that shape
+    static void check() {
+        Object[][] cases = {
+                {20, 1_000L, Engine.DP},
+                {40, 5_000_000L, Engine.BITSET},
+                {40, 640_000_000L, Engine.MITM},        // used to take the bitset path (4.7s vs 0.7s)
+                {40, 1_540_000_000L, Engine.MITM},      // used to take the bitset path (9.9s, GBs of heap)
+                {60, 1_000_000_000_000L, Engine.SCHROEPPEL_SHAMIR},
+        };
+        java.util.Random r = new java.util.Random(3);
+        int failed = 0;
+        for (Object[] c : cases) {
+            int n = (Integer) c[0];
+            long sum = (Long) c[1];
+            // n random items averaging 2*sum/n, target = sum of a random half (about sum)
+            long[] arr = new long[n];
+            long target = 0;
+            for (int i = 0; i < n; i++) {
+                arr[i] = 1 + (long) (r.nextDouble() * (4.0 * sum / n));
+                if (r.nextBoolean()) target += arr[i];
+            }
+            Engine got = choose(n, target, fitsInt(arr));
+            boolean ok = got == c[2];
+            if (n <= 44) {  // keep the check quick
+                ArrayList<Long> subset = new ArrayList<>();
+                long start = System.nanoTime();
+                boolean found = find_subset(target, arr, subset);
+                long total = 0;
+                for (long x : subset) total += x;
+                ok &= found && total == target;
+                System.out.printf("n=%d sum=%d -> %s (%.1f ms)%n", n, target, got, (System.nanoTime() - start) / 1e6);
+            } else {
+                System.out.printf("n=%d sum=%d -> %s%n", n, target, got);
+            }
+            if (!ok) failed++;
+        }
+        System.out.println(failed == 0 ? "All choices as expected" : failed + " cases failed");
+    }
+}
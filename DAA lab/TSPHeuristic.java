@@ -0,0 +1,510 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+Heuristic TSP for thousands of cities (TSP_DP / HeldKarp stop at a few dozen).
+
+1. Candidate lists: for every city keep its k nearest cities, sorted by distance.
+   All moves below only look at these, so each step is O(k) instead of O(n).
+2. Initial tour: greedy edge (shortest candidate edges first, never a degree > 2
+   or a cycle) for the first run, randomized nearest neighbour for the others.
+3. Local search with don't-look bits: a queue of "active" cities. A city is taken
+   off the queue when no move around it helps, and put back when one of its
+   tour edges changes.
+     2-opt : replace edges (a,b),(c,d) by (a,c),(b,d) = reverse the path b..c
+     Or-opt: cut a segment of 1-3 cities and insert it (either direction)
+             between two other neighbouring cities
+4. Restarts with different seeds run on all cores until the time budget is over,
+   the best tour wins.
+
+Input is either the same cost matrix as TSP_DP.main or x/y coordinates
+(distances computed on the fly, no n*n matrix).
+Moves assume d(a,b) == d(b,a); for a directed matrix the tour is still valid,
+its reported cost is the exact directed cost.
+ */
+
+public class TSPHeuristic {
+
+    static final int K = 10;            // candidate list size
+    static final double EPS = 1e-9;
+
+    // ---------------- distances ----------------
+
+    interface Metric {
+        int size();
+        double d(int a, int b);
+    }
+
+    static Metric matrix(int[][] graph) {
+        return new Metric() {
+            public int size() { return graph.length; }
+            public double d(int a, int b) { return graph[a][b]; }
+        };
+    }
+
+    static Metric points(double[] x, double[] y) {
+        return new Metric() {
+            public int size() { return x.length; }
+            public double d(int a, int b) { return Math.hypot(x[a] - x[b], y[a] - y[b]); }
+        };
+    }
+
+    // ---------------- public entry points ----------------
+
+    // Returns tour[0..n] starting and ending at city 0
+    public static int[] solve(int[][] graph, long budgetMillis) {
+        return solve(matrix(graph), budgetMillis);
+    }
+
+    public static int[] solve(double[] x, double[] y, long budgetMillis) {
+        return solve(points(x, y), budgetMillis);
+    }
+
+    static int[] solve(Metric m, long budgetMillis) {
+        int n = m.size();
+        if (n <= 3) {
+            int[] tour = new int[n + 1];
+            for (int i = 0; i < n; i++) tour[i] = i;
+            return tour;  // tour[n] = 0
+        }
+
+        int[][] cand = candidates(m, Math.min(K, n - 1));
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        int[][] best = new int[1][];
+        double[] bestCost = {Double.MAX_VALUE};
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            pool.execute(() -> {
+                Random r = new Random(id * 7919L + 1);
+                int round = 0;
+                // always finish at least one run per thread
+                do {
+                    int[] tour = (id == 0 && round == 0) ? greedyEdge(m, cand) : nearestNeighbour(m, cand, r);
+                    new LocalSearch(m, cand, tour).run(deadline);
+                    double c = cost(m, tour);
+                    synchronized (best) {
+                        if (c < bestCost[0]) {
+                            bestCost[0] = c;
+                            best[0] = tour;
+                        }
+                    }
+                    round++;
+                } while (System.nanoTime() < deadline);
+            });
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // rotate so the tour starts and ends at city 0
+        int[] order = best[0];
+        int[] tour = new int[n + 1];
+        int start = 0;
+        while (order[start] != 0) start++;
+        for (int i = 0; i < n; i++) tour[i] = order[(start + i) % n];
+        tour[n] = 0;
+        return tour;
+    }
+
+    // Cost of a closed tour, in the direction it is listed
+    static double cost(Metric m, int[] tour) {
+        int n = m.size();
+        double c = 0;
+        for (int i = 0; i < n; i++) c += m.d(tour[i], tour[(i + 1) % n]);
+        return c;
+    }
+
+    // ---------------- candidate lists ----------------
+
+    // k nearest cities of every city, closest first
+    static int[][] candidates(Metric m, int k) {
+        int n = m.size();
+        int[][] cand = new int[n][k];
+        double[] dist = new double[k];
+
+        for (int a = 0; a < n; a++) {
+            int size = 0;
+            for (int b = 0; b < n; b++) {
+                if (b == a) continue;
+                double d = m.d(a, b);
+                if (size == k && d >= dist[k - 1]) continue;
+
+                // insertion into the small sorted list
+                int i = size < k ? size++ : k - 1;
+                while (i > 0 && dist[i - 1] > d) {
+                    dist[i] = dist[i - 1];
+                    cand[a][i] = cand[a][i - 1];
+                    i--;
+                }
+                dist[i] = d;
+                cand[a][i] = b;
+            }
+        }
+        return cand;
+    }
+
+    // ---------------- initial tours ----------------
+
+    // Randomized nearest neighbour: random start, go to the closest unvisited city
+    static int[] nearestNeighbour(Metric m, int[][] cand, Random r) {
+        int n = m.size();
+        boolean[] visited = new boolean[n];
+        int[] tour = new int[n];
+        int cur = r.nextInt(n);
+        visited[cur] = true;
+        tour[0] = cur;
+
+        for (int i = 1; i < n; i++) {
+            int next = -1;
+            for (int c : cand[cur]) {
+                if (!visited[c]) {
+                    next = c;
+                    break;
+                }
+            }
+            if (next == -1) {
+                // all candidates used up: scan everything
+                double bestD = Double.MAX_VALUE;
+                for (int c = 0; c < n; c++) {
+                    if (!visited[c] && m.d(cur, c) < bestD) {
+                        bestD = m.d(cur, c);
+                        next = c;
+                    }
+                }
+            }
+            visited[next] = true;
+            tour[i] = next;
+            cur = next;
+        }
+        return tour;
+    }
+
+    // Greedy edge: take candidate edges shortest first, skip ones that would give
+    // a city degree 3 or close a cycle early, then join the leftover fragments.
+    static int[] greedyEdge(Metric m, int[][] cand) {
+        int n = m.size();
+        int k = cand[0].length;
+
+        // all candidate edges (a < b), sorted by length
+        long[] edges = new long[n * k];
+        double[] len = new double[n * k];
+        int e = 0;
+        for (int a = 0; a < n; a++) {
+            for (int b : cand[a]) {
+                if (a < b) {
+                    edges[e] = (long) a << 32 | b;
+                    len[e] = m.d(a, b);
+                    e++;
+                }
+            }
+        }
+        Integer[] order = new Integer[e];
+        for (int i = 0; i < e; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> Double.compare(len[x], len[y]));
+
+        int[] link1 = new int[n], link2 = new int[n];  // up to two tour neighbours
+        Arrays.fill(link1, -1);
+        Arrays.fill(link2, -1);
+        int[] set = new int[n];                        // union-find on fragments
+        for (int i = 0; i < n; i++) set[i] = i;
+        int added = 0;
+
+        for (int idx : order) {
+            int a = (int) (edges[idx] >>> 32), b = (int) edges[idx];
+            if (link2[a] != -1 || link2[b] != -1) continue;
+            int ra = find(set, a), rb = find(set, b);
+            if (ra == rb) continue;
+            set[ra] = rb;
+            link(link1, link2, a, b);
+            added++;
+        }
+
+        // join fragments: from one end, jump to the nearest free end of another fragment
+        int start = 0;
+        while (link2[start] != -1) start++;  // a fragment end (or a lone city)
+        while (added < n - 1) {
+            int end = otherEnd(link1, link2, start);
+            int rEnd = find(set, end);
+            int next = -1;
+            double bestD = Double.MAX_VALUE;
+            for (int c = 0; c < n; c++) {
+                if (link2[c] == -1 && find(set, c) != rEnd && m.d(end, c) < bestD) {
+                    bestD = m.d(end, c);
+                    next = c;
+                }
+            }
+            set[find(set, next)] = rEnd;
+            link(link1, link2, end, next);
+            added++;
+        }
+
+        // walk the path into an array
+        int[] tour = new int[n];
+        int prev = -1, cur = start;
+        for (int i = 0; i < n; i++) {
+            tour[i] = cur;
+            int nxt = link1[cur] != prev ? link1[cur] : link2[cur];
+            prev = cur;
+            cur = nxt;
+        }
+        return tour;
+    }
+
+    static void link(int[] link1, int[] link2, int a, int b) {
+        if (link1[a] == -1) link1[a] = b; else link2[a] = b;
+        if (link1[b] == -1) link1[b] = a; else link2[b] = a;
+    }
+
+    // walk a fragment from one end to the other
+    static int otherEnd(int[] link1, int[] link2, int end) {
+        int prev = -1, cur = end;
+        while (true) {
+            int nxt = link1[cur] != prev ? link1[cur] : link2[cur];
+            if (nxt == -1 || nxt == prev) return cur;
+            prev = cur;
+            cur = nxt;
+        }
+    }
+
+    static int find(int[] set, int x) {
+        while (set[x] != x) {
+            set[x] = set[set[x]];  // path halving
+            x = set[x];
+        }
+        return x;
+    }
+
+    // ---------------- local search ----------------
+
+    static class LocalSearch {
+        final Metric m;
+        final int[][] cand;
+        final int n;
+        final int[] tour, pos;   // tour[i] = city at position i, pos[city] = its position
+
+        final int[] queue;       // active cities (don't-look bit off)
+        final boolean[] queued;
+        int head = 0, count = 0;
+
+        LocalSearch(Metric m, int[][] cand, int[] tour) {
+            this.m = m;
+            this.cand = cand;
+            this.n = tour.length;
+            this.tour = tour;
+            this.pos = new int[n];
+            for (int i = 0; i < n; i++) pos[tour[i]] = i;
+            queue = new int[n];
+            queued = new boolean[n];
+            for (int i = 0; i < n; i++) push(tour[i]);
+        }
+
+        int next(int c) { return tour[(pos[c] + 1) % n]; }
+        int prev(int c) { return tour[(pos[c] + n - 1) % n]; }
+
+        void push(int c) {
+            if (queued[c]) return;
+            queued[c] = true;
+            queue[(head + count) % n] = c;
+            count++;
+        }
+
+        void run(long deadline) {
+            int steps = 0;
+            while (count > 0) {
+                // checking the clock every step is too expensive
+                if ((++steps & 255) == 0 && System.nanoTime() > deadline) return;
+
+                int a = queue[head];
+                head = (head + 1) % n;
+                count--;
+                queued[a] = false;
+
+                if (twoOpt(a) || orOpt(a)) push(a);
+            }
+        }
+
+        // 2-opt around city a, in both tour directions
+        boolean twoOpt(int a) {
+            for (int dir = 0; dir < 2; dir++) {
+                int b = dir == 0 ? next(a) : prev(a);
+                double dab = m.d(a, b);
+
+                for (int c : cand[a]) {
+                    double dac = m.d(a, c);
+                    if (dac >= dab) break;  // sorted: no later candidate can help
+                    int d = dir == 0 ? next(c) : prev(c);
+                    if (c == b || d == a) continue;
+
+                    double delta = dab + m.d(c, d) - dac - m.d(b, d);
+                    if (delta > EPS) {
+                        // forward: a b ... c d -> a c ... b d  (reverse b..c)
+                        // backward: d c ... b a -> d b ... c a (reverse c..b)
+                        if (dir == 0) reverse(b, c); else reverse(c, b);
+                        push(a); push(b); push(c); push(d);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Or-opt: move the segment of 1-3 cities starting at a somewhere else
+        boolean orOpt(int a) {
+            for (int len = 1; len <= 3 && len < n - 2; len++) {
+                int s1 = a;
+                int s2 = tour[(pos[a] + len - 1) % n];
+                int p = prev(s1), nx = next(s2);
+                double removeGain = m.d(p, s1) + m.d(s2, nx) - m.d(p, nx);
+                if (removeGain <= EPS) continue;
+
+                for (int end = 0; end < 2; end++) {
+                    int s = end == 0 ? s1 : s2;
+                    for (int c : cand[s]) {
+                        if (m.d(s, c) >= removeGain) break;
+                        if (inSegment(c, s1, len) || c == p) continue;
+                        int e = next(c);
+                        if (inSegment(e, s1, len)) continue;
+
+                        // insert as c s1..s2 e, or reversed c s2..s1 e
+                        double dce = m.d(c, e);
+                        double fwd = m.d(c, s1) + m.d(s2, e) - dce;
+                        double rev = m.d(c, s2) + m.d(s1, e) - dce;
+                        boolean reversed = rev < fwd;
+                        if (removeGain - Math.min(fwd, rev) > EPS) {
+                            moveSegment(s1, len, c, reversed);
+                            push(p); push(nx); push(c); push(e); push(s1); push(s2);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        boolean inSegment(int c, int s1, int len) {
+            return (pos[c] - pos[s1] + n) % n < len;
+        }
+
+        // reverse the tour path from city 'from' forward to city 'to'
+        void reverse(int from, int to) {
+            int i = pos[from], j = pos[to];
+            int len = (j - i + n) % n + 1;
+            if (len * 2 > n) {
+                // reversing the rest of the tour gives the same cycle, and is shorter
+                int t = i;
+                i = (j + 1) % n;
+                j = (t + n - 1) % n;
+                len = n - len;
+            }
+            for (int s = 0; s < len / 2; s++) {
+                int ci = tour[i], cj = tour[j];
+                tour[i] = cj; pos[cj] = i;
+                tour[j] = ci; pos[ci] = j;
+                i = (i + 1) % n;
+                j = (j + n - 1) % n;
+            }
+        }
+
+        // Take segment s1..(len cities) out and put it between c and next(c).
+        // Only the shorter stretch of the tour between the two spots is shifted.
+        void moveSegment(int s1, int len, int c, boolean reversed) {
+            int[] seg = new int[len];
+            for (int k = 0; k < len; k++) seg[k] = tour[(pos[s1] + k) % n];
+            if (reversed) {
+                for (int k = 0; k < len / 2; k++) {
+                    int t = seg[k]; seg[k] = seg[len - 1 - k]; seg[len - 1 - k] = t;
+                }
+            }
+
+            int segStart = pos[s1];
+            int after = (segStart + len) % n;               // first city after the segment
+            int forward = (pos[c] - after + n) % n + 1;     // cities from 'after' to c
+            int backward = n - len - forward;               // cities from next(c) to prev(s1)
+
+            if (forward <= backward) {
+                // ... [seg] after ... c | e ...  ->  ... after ... c [seg] e ...
+                int w = segStart;
+                for (int k = 0; k < forward; k++) {
+                    int city = tour[(after + k) % n];
+                    tour[w] = city; pos[city] = w;
+                    w = (w + 1) % n;
+                }
+                for (int k = 0; k < len; k++) {
+                    tour[w] = seg[k]; pos[seg[k]] = w;
+                    w = (w + 1) % n;
+                }
+            } else {
+                // ... c | e ... prev [seg] ...  ->  ... c [seg] e ... prev ...
+                int w = (segStart + len - 1) % n;
+                int r = (segStart + n - 1) % n;
+                for (int k = 0; k < backward; k++) {
+                    int city = tour[r];
+                    tour[w] = city; pos[city] = w;
+                    w = (w + n - 1) % n;
+                    r = (r + n - 1) % n;
+                }
+                for (int k = len - 1; k >= 0; k--) {
+                    tour[w] = seg[k]; pos[seg[k]] = w;
+                    w = (w + n - 1) % n;
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Scanner sc = new Scanner(System.in);
+
+        System.out.println("Input type: 1 = cost matrix, 2 = coordinates");
+        int type = sc.nextInt();
+
+        System.out.println("Enter the total number of cities: ");
+        int n = sc.nextInt();
+
+        Metric m;
+        if (type == 1) {
+            int[][] graph = new int[n][n];
+            System.out.println("Enter the directed cost matrix (enter " + TSP_DP.INF + " if path does not exist):");
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    graph[i][j] = sc.nextInt();
+                }
+            }
+            m = matrix(graph);
+        } else {
+            double[] x = new double[n], y = new double[n];
+            System.out.println("Enter x y for every city:");
+            for (int i = 0; i < n; i++) {
+                x[i] = sc.nextDouble();
+                y[i] = sc.nextDouble();
+            }
+            m = points(x, y);
+        }
+
+        System.out.println("Enter the time budget in milliseconds: ");
+        long budget = sc.nextLong();
+
+        int[] tour = solve(m, budget);
+
+        double total = 0;
+        for (int i = 0; i < n; i++) total += m.d(tour[i], tour[i + 1]);
+
+        System.out.println("\nTour cost: " + total);
+        System.out.print("Tour path: " + tour[0]);
+        for (int i = 1; i <= n; i++) {
+            System.out.print(" -> " + tour[i]);
+        }
+        System.out.println();
+        sc.close();
+    }
+}
@@ -66,6 +66,7 @@ public class TSP_DP {
 
         // Store result in dp table before returning
         dp[currentCity][countVisited] = ans;
+        if (Metrics.ENABLED) Metrics.Counter.DP_CELLS.inc();
         return ans;
     }
 
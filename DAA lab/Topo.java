@@ -19,24 +19,32 @@ public class Topo {
 
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws java.io.IOException {
         Scanner sc = new Scanner(System.in);
+        int n;
+        int[][] graph;
 
-        // Input: number of vertices
-        System.out.println("Enter the number of nodes : ");
-        int n = sc.nextInt();
+        if (args.length > 0) {
+            // DAG from an edge list or binary CSR file (see GraphIO)
+            graph = GraphIO.loadMatrix(args[0], 0, false, false);
+            n = graph.length;
+        } else {
+            // Input: number of vertices
+            System.out.println("Enter the number of nodes : ");
+            n = sc.nextInt();
 
-        // Input: adjacency matrix for DAG
-        System.out.println("Enter the directed acyclic graph : ");
-        int[][] graph = new int[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                graph[i][j] = sc.nextInt();  // 1 if edge i→j exists, else 0
+            // Input: adjacency matrix for DAG
+            System.out.println("Enter the directed acyclic graph : ");
+            graph = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    graph[i][j] = sc.nextInt();  // 1 if edge i→j exists, else 0
+                }
             }
         }
 
         // Visited array to track visited nodes during DFS
-        boolean[] visited = new boolean[10];
+        boolean[] visited = new boolean[n];
 
         // Stack to store topological order
         Stack<Integer> stack = new Stack<>();
@@ -0,0 +1,227 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/*
+Topological sort with Kahn's algorithm on a CSRGraph (no recursion, no V x V matrix).
+
+indeg[v] = number of edges still coming into v
+1. every vertex with indeg 0 can go first
+2. output it and "remove" its edges: indeg[v]-- for each neighbour v
+3. a neighbour whose indeg hits 0 is now ready
+If some vertices never reach indeg 0 they are on (or behind) a cycle.
+
+Wavefront mode: the same thing level by level. Level 0 = vertices with no
+incoming edges, level k+1 = vertices whose last dependency was in level k.
+Vertices inside one level don't depend on each other, so a task scheduler can
+run a whole level at once. Each level is processed in parallel, with the
+in-degrees decremented atomically.
+ */
+
+public class TopoKahn {
+
+    // Thrown when the graph has a cycle
+    static class CycleException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        final int[] cycle;      // one cycle, in edge order (cycle[i] -> cycle[i+1] -> ... -> cycle[0])
+        final int[] blocked;    // every vertex that could not be ordered
+
+        CycleException(int[] cycle, int[] blocked) {
+            super("Graph has a cycle: " + Arrays.toString(cycle) + " (" + blocked.length + " vertices blocked)");
+            this.cycle = cycle;
+            this.blocked = blocked;
+        }
+    }
+
+    // Sequential Kahn, returns the vertices in topological order
+    static int[] sort(CSRGraph g) {
+        int n = g.n;
+        int[] indeg = inDegrees(g);
+
+        int[] order = new int[n];   // doubles as the queue: [head, tail) is still to be processed
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (indeg[v] == 0) order[tail++] = v;
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int u = order[head];
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e];
+                if (--indeg[v] == 0) order[tail++] = v;
+            }
+        }
+
+        if (tail < n) throw cycleError(g, indeg);
+        return order;
+    }
+
+    // Parallel wavefront: levels[k] = vertices that become ready after level k-1
+    static int[][] levels(CSRGraph g) {
+        int n = g.n;
+        AtomicIntegerArray indeg = new AtomicIntegerArray(inDegrees(g));
+
+        int[] frontier = IntStream.range(0, n).filter(v -> indeg.get(v) == 0).toArray();
+        int[][] levels = new int[n][];
+        int levelCount = 0, done = 0;
+        int[] next = new int[n];
+
+        while (frontier.length > 0) {
+            levels[levelCount++] = frontier;
+            done += frontier.length;
+
+            AtomicInteger size = new AtomicInteger();
+            final int[] cur = frontier;
+            IntStream.range(0, cur.length).parallel().forEach(i -> {
+                int u = cur[i];
+                for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                    int v = g.targets[e];
+                    // exactly one thread sees the count reach 0
+                    if (indeg.decrementAndGet(v) == 0) next[size.getAndIncrement()] = v;
+                }
+            });
+            frontier = Arrays.copyOf(next, size.get());
+        }
+
+        if (done < n) {
+            int[] left = new int[n];
+            for (int v = 0; v < n; v++) left[v] = indeg.get(v);
+            throw cycleError(g, left);
+        }
+        return Arrays.copyOf(levels, levelCount);
+    }
+
+    // Runs task(v) for every vertex, a level at a time; a level starts only after
+    // every vertex it depends on has finished.
+    static void runLevels(CSRGraph g, IntConsumer task) {
+        for (int[] level : levels(g)) {
+            Arrays.stream(level).parallel().forEach(task);
+        }
+    }
+
+    static int[] inDegrees(CSRGraph g) {
+        int[] indeg = new int[g.n];
+        for (int e = 0; e < g.targets.length; e++) {
+            indeg[g.targets[e]]++;
+        }
+        return indeg;
+    }
+
+    // Vertices with indeg > 0 left over are blocked by a cycle. Each of them has a
+    // blocked predecessor, so following predecessors must run into a cycle.
+    static CycleException cycleError(CSRGraph g, int[] indeg) {
+        int n = g.n;
+        int[] pred = new int[n];
+        Arrays.fill(pred, -1);
+        int blockedCount = 0;
+        for (int u = 0; u < n; u++) {
+            if (indeg[u] == 0) continue;
+            blockedCount++;
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                int v = g.targets[e];
+                if (indeg[v] > 0) pred[v] = u;
+            }
+        }
+
+        int[] blocked = new int[blockedCount];
+        int start = -1;
+        for (int v = 0, k = 0; v < n; v++) {
+            if (indeg[v] > 0) {
+                blocked[k++] = v;
+                start = v;
+            }
+        }
+
+        // walk back until a vertex repeats, that vertex is on a cycle
+        int[] seen = new int[n];
+        int v = start;
+        while (seen[v] == 0) {
+            seen[v] = 1;
+            v = pred[v];
+        }
+
+        int len = 1;
+        for (int x = pred[v]; x != v; x = pred[x]) len++;
+        int[] cycle = new int[len];
+        int x = v;
+        for (int i = len - 1; i >= 0; i--) {  // predecessors come out backwards
+            cycle[i] = x;
+            x = pred[x];
+        }
+        return new CycleException(cycle, blocked);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            runFile(args[0]);
+            return;
+        }
+
+        Scanner sc = new Scanner(System.in);
+
+        // Input: number of vertices
+        System.out.println("Enter the number of nodes : ");
+        int n = sc.nextInt();
+
+        // Input: adjacency matrix for DAG
+        System.out.println("Enter the directed acyclic graph : ");
+        int[][] graph = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                graph[i][j] = sc.nextInt();  // 1 if edge i→j exists, else 0
+            }
+        }
+        CSRGraph g = CSRGraph.fromMatrix(graph, n, 0);
+
+        try {
+            System.out.println(" Topological sort: ");
+            for (int v : sort(g)) {
+                System.out.print(v + " ");
+            }
+            System.out.println();
+
+            System.out.println(" Levels (each can run in parallel): ");
+            int[][] levels = levels(g);
+            for (int k = 0; k < levels.length; k++) {
+                System.out.println(" " + k + ": " + Arrays.toString(levels[k]));
+            }
+        } catch (CycleException e) {
+            System.out.println(e.getMessage());
+        }
+
+        sc.close();
+    }
+
+    // java TopoKahn <graph>: edge list or binary CSR file (see GraphIO), any size.
+    // Timings go to stderr, the order goes to stdout as one vertex per line.
+    static void runFile(String file) throws IOException {
+        long start = System.nanoTime();
+        CSRGraph g = GraphIO.load(file);
+        System.err.printf("Loaded %d vertices, %d edges in %.1f ms%n", g.n, g.edgeCount(), (System.nanoTime() - start) / 1e6);
+
+        try {
+            start = System.nanoTime();
+            int[] order = sort(g);
+            System.err.printf("Kahn sort: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+            start = System.nanoTime();
+            int[][] levels = levels(g);
+            int widest = 0;
+            for (int[] level : levels) widest = Math.max(widest, level.length);
+            System.err.printf("Levels: %d (widest %d vertices) in %.1f ms%n", levels.length, widest, (System.nanoTime() - start) / 1e6);
+
+            PrintWriter out = new PrintWriter(new BufferedOutputStream(System.out, 1 << 16));
+            for (int v : order) out.println(v);
+            out.flush();
+        } catch (CycleException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
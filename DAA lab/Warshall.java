@@ -2,28 +2,29 @@ import java.util.*;
 
 public class Warshall {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws java.io.IOException {
         Scanner sc = new Scanner(System.in);
-        System.out.print("Enter the number of vert: ");
+        int vert;
+        int[][] graph;
 
-        int vert = sc.nextInt();
-        int[][] graph = new int[vert][vert];
+        if (args.length > 0) {
+            // graph from an edge list or binary CSR file (see GraphIO)
+            graph = GraphIO.loadMatrix(args[0], 0, false, false);
+            vert = graph.length;
+        } else {
+            System.out.print("Enter the number of vert: ");
+            vert = sc.nextInt();
+            graph = new int[vert][vert];
 
-        System.out.println("Enter the adjacency matrix (0 for no edge, 1 for edge):");
-        for (int i = 0; i < vert; i++) {
-            for (int j = 0; j < vert; j++) {
-                graph[i][j] = sc.nextInt();
-            }
-        }
-        
-        // finding the transitive closure using WarShalls algorithm
-        for(int k = 0; k < vert; k++){
-            for(int i = 0; i < vert; i++){
-                for(int j = 0; j < vert; j++){
-                    graph[i][j] = graph[i][j] | (graph[i][k] & graph[k][j]);
+            System.out.println("Enter the adjacency matrix (0 for no edge, 1 for edge):");
+            for (int i = 0; i < vert; i++) {
+                for (int j = 0; j < vert; j++) {
+                    graph[i][j] = sc.nextInt();
                 }
             }
         }
+
+        closure(graph, vert);
         System.out.println("Transitive Closure:");
         for (int i = 0; i < vert; i++) {
             for (int j = 0; j < vert; j++) {
@@ -33,6 +34,17 @@ public class Warshall {
         }
         sc.close();
     }
+
+    // finding the transitive closure using WarShalls algorithm (in place)
+    static void closure(int[][] graph, int vert) {
+        for(int k = 0; k < vert; k++){
+            for(int i = 0; i < vert; i++){
+                for(int j = 0; j < vert; j++){
+                    graph[i][j] = graph[i][j] | (graph[i][k] & graph[k][j]);
+                }
+            }
+        }
+    }
 }
 
 